@@ -0,0 +1,100 @@
+package com.wenyu7980.security.benchmark;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.core.PermitNode;
+import com.wenyu7980.security.core.PermitPlan;
+import com.wenyu7980.security.core.PermitPlanRegistry;
+import com.wenyu7980.security.core.PermitProperties;
+import com.wenyu7980.security.core.Permittable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不同属性读取策略下，读取多个Permit属性的开销
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermitAccessorBenchmark {
+    @Param({ "REFLECTION", "LAMBDA" })
+    private PermitProperties.Accessor accessor;
+
+    private PermitPlan plan;
+    private Wide wide;
+
+    @Setup
+    public void setup() {
+        this.plan = new PermitPlanRegistry(this.accessor.factory())
+                .plan(Wide.class);
+        this.wide = new Wide();
+    }
+
+    /**
+     * 每个节点读取一个属性，不分配数组，只有读取器的开销
+     * @param blackhole
+     */
+    @Benchmark
+    public void value(Blackhole blackhole) {
+        for (PermitNode node : this.plan.getNodes()) {
+            blackhole.consume(node.value(this.wide));
+        }
+    }
+
+    /**
+     * 多个Permit属性的数据
+     */
+    public static class Wide {
+        @Permit(clazz = Finder.class)
+        private String storeId = "store";
+        @Permit(clazz = Finder.class)
+        private String ownerId = "owner";
+        @Permit(clazz = Finder.class)
+        private Long tenantId = 1L;
+        @Permit(root = true)
+        private long userId = 2L;
+
+        public String getStoreId() {
+            return storeId;
+        }
+
+        public String getOwnerId() {
+            return ownerId;
+        }
+
+        public Long getTenantId() {
+            return tenantId;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+    }
+
+    public interface Finder extends Permittable<Wide, String> {
+        @Override
+        Optional<Wide> findPermitById(String id);
+    }
+}
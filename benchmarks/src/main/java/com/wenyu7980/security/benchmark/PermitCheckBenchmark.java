@@ -0,0 +1,335 @@
+package com.wenyu7980.security.benchmark;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.EnableDataPermit;
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.annotation.PermitMethod;
+import com.wenyu7980.security.annotation.Permits;
+import com.wenyu7980.security.core.PermitConfig;
+import com.wenyu7980.security.core.PermitDynamicType;
+import com.wenyu7980.security.core.PermitEvaluator;
+import com.wenyu7980.security.core.Permittable;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次权限校验的开销
+ * proxy经过Spring AOP代理调用PermitMethod方法，engine直接调用PermitEvaluator
+ * 上级资源和根校验都是内存实现，结果只反映starter自身的开销
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar PermitCheckBenchmark -prof gc
+ * </pre>
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermitCheckBenchmark {
+    /** 上级资源链长度 */
+    private static final int CHAIN = 8;
+
+    @Param({ "FLAT", "CHAIN", "COMPOSITE", "DYNAMIC", "WIDE" })
+    private Scenario scenario;
+
+    private AnnotationConfigApplicationContext context;
+    private PermitEvaluator evaluator;
+    private DataService service;
+    private Object data;
+
+    @Setup
+    public void setup() {
+        this.context = new AnnotationConfigApplicationContext(
+                BenchmarkConfiguration.class);
+        this.evaluator = this.context.getBean(PermitEvaluator.class);
+        this.service = this.context.getBean(DataService.class);
+        this.data = this.scenario.data();
+        if (!this.evaluator.check(this.data)) {
+            throw new IllegalStateException(this.scenario + "校验不通过");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.context.close();
+    }
+
+    @Benchmark
+    public Object proxy() {
+        return this.service.get(this.data);
+    }
+
+    @Benchmark
+    public boolean engine() {
+        return this.evaluator.check(this.data);
+    }
+
+    public enum Scenario {
+        /** 根资源 */
+        FLAT {
+            @Override
+            Object data() {
+                return new User("user");
+            }
+        },
+        /** 上级资源链，最上层是根资源 */
+        CHAIN {
+            @Override
+            Object data() {
+                return new Folder("folder0", "folder1", null);
+            }
+        },
+        /** Permits复合key */
+        COMPOSITE {
+            @Override
+            Object data() {
+                return new Detail("order", 1);
+            }
+        },
+        /** 动态关联服务类 */
+        DYNAMIC {
+            @Override
+            Object data() {
+                return new Attachment(Owner.USER, "user");
+            }
+        },
+        /** 多个权限属性，只有最后一个通过 */
+        WIDE {
+            @Override
+            Object data() {
+                return new Wide();
+            }
+        };
+
+        abstract Object data();
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    @EnableDataPermit
+    public static class BenchmarkConfiguration {
+        @Bean
+        public PermitConfig permitConfig() {
+            return new BenchmarkPermitConfig();
+        }
+
+        @Bean
+        public DataService dataService() {
+            return new DataService();
+        }
+
+        @Bean
+        public UserService userService() {
+            return new UserService();
+        }
+
+        @Bean
+        public FolderService folderService() {
+            return new FolderService();
+        }
+
+        @Bean
+        public ItemService itemService() {
+            return new ItemService();
+        }
+    }
+
+    /**
+     * 根校验：只有user通过
+     */
+    public static class BenchmarkPermitConfig implements PermitConfig {
+        @Override
+        public boolean checkPermit(Object obj, Permit permit) {
+            return "user".equals(obj);
+        }
+
+        @Override
+        public RuntimeException exception(String message) {
+            return new IllegalStateException(message);
+        }
+    }
+
+    public static class DataService {
+        @PermitMethod
+        public Object get(Object data) {
+            return data;
+        }
+    }
+
+    public static class User {
+        @Permit(root = true)
+        private String id;
+
+        public User(String id) {
+            this.id = id;
+        }
+    }
+
+    public static class UserService implements Permittable<User, String> {
+        @Override
+        public Optional<User> findPermitById(String id) {
+            return Optional.of(new User(id));
+        }
+    }
+
+    public static class Folder {
+        private String id;
+        @Permit(clazz = FolderService.class)
+        private String parentId;
+        @Permit(root = true)
+        private String owner;
+
+        public Folder(String id, String parentId, String owner) {
+            this.id = id;
+            this.parentId = parentId;
+            this.owner = owner;
+        }
+    }
+
+    public static class FolderService implements Permittable<Folder, String> {
+        private final Map<String, Folder> folders = new HashMap<>();
+
+        public FolderService() {
+            for (int i = 1; i < CHAIN; i++) {
+                String parent = i + 1 < CHAIN ? "folder" + (i + 1) : null;
+                this.folders.put("folder" + i, new Folder("folder" + i, parent,
+                        Objects.isNull(parent) ? "user" : null));
+            }
+        }
+
+        @Override
+        public Optional<Folder> findPermitById(String id) {
+            return Optional.ofNullable(this.folders.get(id));
+        }
+    }
+
+    public static class ItemKey {
+        private final String orderId;
+        private final Integer no;
+
+        public ItemKey(String orderId, Integer no) {
+            this.orderId = orderId;
+            this.no = no;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ItemKey)) {
+                return false;
+            }
+            ItemKey key = (ItemKey) o;
+            return orderId.equals(key.orderId) && no.equals(key.no);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(orderId, no);
+        }
+    }
+
+    public static class Item {
+        @Permit(root = true)
+        private String owner;
+
+        public Item(String owner) {
+            this.owner = owner;
+        }
+    }
+
+    public static class ItemService implements Permittable<Item, ItemKey> {
+        private final Item item = new Item("user");
+
+        @Override
+        public Optional<Item> findPermitById(ItemKey id) {
+            return Optional.of(this.item);
+        }
+    }
+
+    @Permits(permits = @Permit(names = { "orderId",
+            "no" }, clazz = ItemService.class))
+    public static class Detail {
+        private String orderId;
+        private Integer no;
+
+        public Detail(String orderId, Integer no) {
+            this.orderId = orderId;
+            this.no = no;
+        }
+    }
+
+    public enum Owner implements PermitDynamicType {
+        USER {
+            @Override
+            @SuppressWarnings("rawtypes")
+            public Class<? extends Permittable> type() {
+                return UserService.class;
+            }
+        },
+        FOLDER {
+            @Override
+            @SuppressWarnings("rawtypes")
+            public Class<? extends Permittable> type() {
+                return FolderService.class;
+            }
+        }
+    }
+
+    public static class Attachment {
+        private Owner owner;
+        @Permit(dynamic = "owner")
+        private String ownerId;
+
+        public Attachment(Owner owner, String ownerId) {
+            this.owner = owner;
+            this.ownerId = ownerId;
+        }
+    }
+
+    public static class Wide {
+        @Permit(root = true)
+        private String a = "other";
+        @Permit(root = true)
+        private String b = "other";
+        @Permit(root = true)
+        private String c = "other";
+        @Permit(root = true)
+        private String d = "other";
+        @Permit(root = true)
+        private String e = "other";
+        @Permit(root = true)
+        private String f = "other";
+        @Permit(root = true)
+        private String g = "other";
+        @Permit(root = true)
+        private String h = "user";
+    }
+}
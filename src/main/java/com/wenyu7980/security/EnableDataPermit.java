@@ -16,6 +16,10 @@ package com.wenyu7980.security;
  */
 
 import com.wenyu7980.security.core.PermitAspect;
+import com.wenyu7980.security.core.PermitConfiguration;
+import com.wenyu7980.security.metrics.PermitMetricsConfiguration;
+import com.wenyu7980.security.reactive.PermitReactiveConfiguration;
+import com.wenyu7980.security.trace.PermitTraceConfiguration;
 import org.springframework.boot.autoconfigure.AutoConfigurationPackage;
 import org.springframework.context.annotation.EnableAspectJAutoProxy;
 import org.springframework.context.annotation.Import;
@@ -32,7 +36,9 @@ import java.lang.annotation.*;
 @Documented
 @Inherited
 @AutoConfigurationPackage
-@Import(value = PermitAspect.class)
+@Import(value = { PermitAspect.class, PermitConfiguration.class,
+        PermitReactiveConfiguration.class, PermitMetricsConfiguration.class,
+        PermitTraceConfiguration.class })
 @EnableAspectJAutoProxy
 public @interface EnableDataPermit {
 }
@@ -0,0 +1,92 @@
+package com.wenyu7980.security.accessor;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.springframework.util.ClassUtils;
+
+import java.lang.invoke.*;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Objects;
+
+/**
+ * LambdaMetafactory生成读取器，调用属性的public getter
+ * 读取的是getter的返回值而不是属性值，getter转换属性值或者延迟加载(如JPA懒加载代理)时，
+ * 校验的是转换或者加载后的值，与REFLECTION不同
+ * 没有getter或者getter不可访问时使用反射读取属性
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class LambdaPermitAccessorFactory implements PermitAccessorFactory {
+    private static final MethodType FACTORY = MethodType
+            .methodType(PermitAccessor.class);
+    private static final MethodType GET = MethodType
+            .methodType(Object.class, Object.class);
+    private final PermitAccessorFactory fallback = new ReflectionPermitAccessorFactory();
+
+    @Override
+    public PermitAccessor create(Field field) {
+        Method getter = this.getter(field);
+        if (Objects.isNull(getter)) {
+            return this.fallback.create(field);
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            MethodHandle handle = lookup.unreflect(getter);
+            CallSite site = LambdaMetafactory
+                    .metafactory(lookup, "get", FACTORY, GET, handle,
+                            handle.type().wrap());
+            return (PermitAccessor) site.getTarget().invokeExact();
+        } catch (Throwable e) {
+            return this.fallback.create(field);
+        }
+    }
+
+    /**
+     * 可以被生成类直接调用的getter
+     * @param field
+     * @return
+     */
+    private Method getter(Field field) {
+        Class<?> clazz = field.getDeclaringClass();
+        if (!ClassUtils.isVisible(clazz,
+                LambdaPermitAccessorFactory.class.getClassLoader())) {
+            return null;
+        }
+        for (Class<?> c = clazz; Objects.nonNull(c); c = c
+                .getEnclosingClass()) {
+            if (!Modifier.isPublic(c.getModifiers())) {
+                return null;
+            }
+        }
+        String name = Character.toUpperCase(field.getName().charAt(0)) + field
+                .getName().substring(1);
+        for (String prefix : new String[] { "get", "is" }) {
+            try {
+                Method method = clazz.getMethod(prefix + name);
+                if (Modifier.isPublic(method.getModifiers()) && !Modifier
+                        .isStatic(method.getModifiers()) && Objects
+                        .equals(method.getReturnType(), field.getType())) {
+                    return method;
+                }
+            } catch (NoSuchMethodException e) {
+                // 继续查找
+            }
+        }
+        return null;
+    }
+}
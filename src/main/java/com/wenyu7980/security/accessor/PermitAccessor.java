@@ -0,0 +1,31 @@
+package com.wenyu7980.security.accessor;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * 权限属性读取器
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+@FunctionalInterface
+public interface PermitAccessor {
+    /**
+     * 读取属性值
+     * @param obj
+     * @return
+     */
+    Object get(Object obj);
+}
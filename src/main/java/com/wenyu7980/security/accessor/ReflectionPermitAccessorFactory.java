@@ -0,0 +1,36 @@
+package com.wenyu7980.security.accessor;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.lang.reflect.Field;
+
+/**
+ * 反射读取，其他读取策略无法使用时的兜底方案
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class ReflectionPermitAccessorFactory implements PermitAccessorFactory {
+    @Override
+    public PermitAccessor create(Field field) {
+        return obj -> {
+            try {
+                return field.get(obj);
+            } catch (IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+}
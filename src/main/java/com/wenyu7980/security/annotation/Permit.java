@@ -40,6 +40,7 @@ public @interface Permit {
      * 如果该属性和dynamic都没有设定，则认为校验属性是复合属性
      * @return
      */
+    @SuppressWarnings("rawtypes")
     Class<? extends Permittable> clazz() default Permittable.class;
 
     /**
@@ -50,6 +51,15 @@ public @interface Permit {
      */
     String dynamic() default "";
 
+    /**
+     * 已加载的上级资源属性
+     * 设定clazz或者dynamic时，该属性有值且已经加载(不是未初始化的延迟加载代理)，
+     * 并且其@Id属性与查询ID一致时直接作为上级资源校验，
+     * 否则仍然通过findPermitById查询；不会触发延迟加载
+     * @return
+     */
+    String association() default "";
+
     /**
      * 判断是否是根校验
      * 如果是根校验会调用{@link com.wenyu7980.security.core.PermitConfig#checkPermit(Object, Permit)}
@@ -0,0 +1,31 @@
+package com.wenyu7980.security.annotation;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * 批量返回值的权限处理方式
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public enum PermitBatch {
+    /** 存在无权限的数据时整体拒绝 */
+    REJECT,
+    /**
+     * 过滤掉无权限的数据
+     * Page只过滤当前页，总数只减去当前页过滤掉的数量，其他页中无权限的数据仍然计入总数
+     */
+    FILTER
+}
@@ -15,9 +15,13 @@ package com.wenyu7980.security.annotation;
  * limitations under the License.
  */
 
+import com.wenyu7980.security.core.Permittable;
+
 import java.lang.annotation.*;
 
 /**
+ * 需要权限校验的方法
+ * 返回值可以是单个数据，Optional，Collection，Stream，数组，Page或者Slice
  * @author:wenyu
  * @date:2019/12/18
  */
@@ -31,4 +35,34 @@ public @interface PermitMethod {
      * @return
      */
     String message() default "方法{1}访问{0}权限不足";
+
+    /**
+     * 返回值是Collection，Stream，数组，Page或者Slice时的处理方式
+     * @return
+     */
+    PermitBatch batch() default PermitBatch.REJECT;
+
+    /**
+     * 是否脱敏
+     * true时只有返回数据本身没有权限才拒绝，
+     * 没有权限的复杂类型Permit属性由{@link com.wenyu7980.security.core.PermitRedactor}脱敏，
+     * 默认置为null；Mono和Flux返回值不脱敏
+     * @return
+     */
+    boolean redact() default false;
+
+    /**
+     * 方法执行前校验的上级资源服务类
+     * 设定时由arguments指定的参数构造上级资源ID，方法执行前校验该上级资源，
+     * 不通过时方法不执行；通过时不再校验返回值
+     * @return
+     */
+    @SuppressWarnings("rawtypes")
+    Class<? extends Permittable> before() default Permittable.class;
+
+    /**
+     * before设定时构造上级资源ID的参数位置，多个时作为复合key按顺序构造
+     * @return
+     */
+    int[] arguments() default { 0 };
 }
@@ -0,0 +1,206 @@
+package com.wenyu7980.security.cache;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * 进程内根校验结果缓存
+ * 分段LRU，超过容量时移除最久未使用的结果，超过ttl的结果在读取时移除
+ * 每次失效推进失效版本，校验期间发生过失效的结果不写入
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class LocalPermitDecisionCache implements PermitDecisionCache {
+    private static final int SEGMENTS = 16;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long ttl;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    /** 失效版本 */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @param maximumSize 最大缓存数量
+     * @param ttl 缓存时间
+     */
+    public LocalPermitDecisionCache(long maximumSize, Duration ttl) {
+        int capacity = (int) Math
+                .max(1, (maximumSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            this.segments[i] = new Segment(capacity);
+        }
+        this.ttl = ttl.toNanos();
+    }
+
+    @Override
+    public Boolean get(PermitDecisionKey key) {
+        Segment segment = this.segment(key);
+        Entry entry;
+        synchronized (segment) {
+            entry = segment.get(key);
+            if (Objects.nonNull(entry) && entry.expired(System.nanoTime())) {
+                segment.remove(key);
+                this.evictions.increment();
+                entry = null;
+            }
+        }
+        if (Objects.isNull(entry)) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        return entry.granted;
+    }
+
+    @Override
+    public void put(PermitDecisionKey key, boolean granted) {
+        Segment segment = this.segment(key);
+        Entry entry = new Entry(granted, System.nanoTime() + this.ttl);
+        synchronized (segment) {
+            segment.put(key, entry);
+        }
+    }
+
+    @Override
+    public long generation(PermitDecisionKey key) {
+        return this.generation.get();
+    }
+
+    @Override
+    public void put(PermitDecisionKey key, boolean granted, long generation) {
+        Segment segment = this.segment(key);
+        Entry entry = new Entry(granted, System.nanoTime() + this.ttl);
+        synchronized (segment) {
+            // 失效先推进版本再在分段锁内移除，锁内版本没有变化时写入的结果会被之后的失效移除
+            if (this.generation.get() == generation) {
+                segment.put(key, entry);
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(Object principal) {
+        this.advance();
+        this.remove(key -> Objects.equals(principal, key.getPrincipal()));
+    }
+
+    @Override
+    public void invalidate(Object principal, String type, Object value) {
+        this.advance();
+        PermitDecisionKey key = new PermitDecisionKey(principal, type, value);
+        Segment segment = this.segment(key);
+        synchronized (segment) {
+            segment.remove(key);
+        }
+    }
+
+    @Override
+    public void invalidateRoot(String type, Object value) {
+        this.advance();
+        this.remove(key -> Objects.equals(type, key.getType()) && Objects
+                .equals(value, key.getValue()));
+    }
+
+    @Override
+    public void invalidateAll() {
+        this.advance();
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    @Override
+    public PermitCacheStats stats() {
+        long size = 0;
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return new PermitCacheStats(this.hits.sum(), this.misses.sum(),
+                this.evictions.sum(), size);
+    }
+
+    /**
+     * 推进失效版本，之前获取版本的校验结果不再写入
+     */
+    void advance() {
+        this.generation.incrementAndGet();
+    }
+
+    private void remove(Predicate<PermitDecisionKey> predicate) {
+        for (Segment segment : this.segments) {
+            synchronized (segment) {
+                segment.keySet().removeIf(predicate);
+            }
+        }
+    }
+
+    private Segment segment(PermitDecisionKey key) {
+        int hash = key.hashCode();
+        return this.segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    /**
+     * 缓存结果
+     */
+    private static final class Entry {
+        private final boolean granted;
+        private final long expireAt;
+
+        private Entry(boolean granted, long expireAt) {
+            this.granted = granted;
+            this.expireAt = expireAt;
+        }
+
+        private boolean expired(long now) {
+            return now - this.expireAt >= 0;
+        }
+    }
+
+    /**
+     * LRU分段
+     */
+    private final class Segment extends LinkedHashMap<PermitDecisionKey, Entry> {
+        private static final long serialVersionUID = 1L;
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<PermitDecisionKey, LocalPermitDecisionCache.Entry> eldest) {
+            if (this.size() > this.capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
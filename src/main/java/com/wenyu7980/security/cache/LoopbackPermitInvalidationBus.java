@@ -0,0 +1,43 @@
+package com.wenyu7980.security.cache;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 进程内事件总线
+ * 同步通知同一进程内的订阅者，单实例部署和测试时使用；
+ * 发布的缓存已经在本地处理，同步投递回发布的缓存时由缓存跳过
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class LoopbackPermitInvalidationBus implements PermitInvalidationBus {
+    private final List<Consumer<PermitInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(PermitInvalidation invalidation) {
+        for (Consumer<PermitInvalidation> listener : this.listeners) {
+            listener.accept(invalidation);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<PermitInvalidation> listener) {
+        this.listeners.add(listener);
+    }
+}
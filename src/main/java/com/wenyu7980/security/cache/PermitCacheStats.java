@@ -0,0 +1,71 @@
+package com.wenyu7980.security.cache;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * 缓存统计
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public final class PermitCacheStats {
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long size;
+
+    public PermitCacheStats(long hits, long misses, long evictions,
+            long size) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.size = size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * 因容量或者过期被移除的数量，不包括主动失效
+     * @return
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * 命中率
+     * @return
+     */
+    public double getHitRate() {
+        long total = this.hits + this.misses;
+        return total == 0 ? 1.0 : (double) this.hits / total;
+    }
+
+    @Override
+    public String toString() {
+        return "PermitCacheStats{hits=" + hits + ", misses=" + misses
+                + ", evictions=" + evictions + ", size=" + size + "}";
+    }
+}
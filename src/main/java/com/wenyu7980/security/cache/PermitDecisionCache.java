@@ -0,0 +1,91 @@
+package com.wenyu7980.security.cache;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * 根校验结果缓存
+ * 授权或者撤销授权后需要调用invalidate使缓存立即失效
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public interface PermitDecisionCache {
+    /**
+     * 获取缓存的校验结果
+     * @param key
+     * @return null表示未缓存
+     */
+    Boolean get(PermitDecisionKey key);
+
+    /**
+     * 缓存校验结果
+     * @param key
+     * @param granted
+     */
+    void put(PermitDecisionKey key, boolean granted);
+
+    /**
+     * 失效版本
+     * 未命中时在get之前获取，校验后写入时版本变化说明期间发生过失效，结果不再缓存
+     * @param key
+     * @return
+     */
+    default long generation(PermitDecisionKey key) {
+        return 0L;
+    }
+
+    /**
+     * 失效版本没有变化时缓存校验结果
+     * @param key
+     * @param granted
+     * @param generation get之前获取的失效版本
+     */
+    default void put(PermitDecisionKey key, boolean granted,
+            long generation) {
+        this.put(key, granted);
+    }
+
+    /**
+     * 使用户的所有缓存失效
+     * @param principal
+     */
+    void invalidate(Object principal);
+
+    /**
+     * 使用户对某个根资源的缓存失效
+     * @param principal
+     * @param type Permit.type
+     * @param value
+     */
+    void invalidate(Object principal, String type, Object value);
+
+    /**
+     * 使所有用户对某个根资源的缓存失效
+     * @param type Permit.type
+     * @param value
+     */
+    void invalidateRoot(String type, Object value);
+
+    /**
+     * 使所有缓存失效
+     */
+    void invalidateAll();
+
+    /**
+     * 统计
+     * @return
+     */
+    PermitCacheStats stats();
+}
@@ -0,0 +1,76 @@
+package com.wenyu7980.security.cache;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.Objects;
+
+/**
+ * 根校验结果缓存key
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public final class PermitDecisionKey {
+    /** 用户 */
+    private final Object principal;
+    /** Permit.type */
+    private final String type;
+    /** 被校验值 */
+    private final Object value;
+    private final int hash;
+
+    public PermitDecisionKey(Object principal, String type, Object value) {
+        this.principal = principal;
+        this.type = type;
+        this.value = value;
+        this.hash = Objects.hash(principal, type, value);
+    }
+
+    public Object getPrincipal() {
+        return principal;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PermitDecisionKey)) {
+            return false;
+        }
+        PermitDecisionKey that = (PermitDecisionKey) o;
+        return Objects.equals(this.principal, that.principal) && Objects
+                .equals(this.type, that.type) && Objects
+                .equals(this.value, that.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return this.principal + ":" + this.type + ":" + this.value;
+    }
+}
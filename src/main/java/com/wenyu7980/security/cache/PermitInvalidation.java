@@ -0,0 +1,139 @@
+package com.wenyu7980.security.cache;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * 缓存失效事件
+ * 通过{@link PermitInvalidationBus}广播到所有节点
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public final class PermitInvalidation implements Serializable {
+    private static final long serialVersionUID = 1L;
+    /** 失效范围 */
+    private final Scope scope;
+    private final Object principal;
+    /** Permit.type */
+    private final String type;
+    private final Object value;
+
+    private PermitInvalidation(Scope scope, Object principal, String type,
+            Object value) {
+        this.scope = scope;
+        this.principal = principal;
+        this.type = type;
+        this.value = value;
+    }
+
+    /**
+     * 所有缓存
+     * @return
+     */
+    public static PermitInvalidation all() {
+        return new PermitInvalidation(Scope.ALL, null, null, null);
+    }
+
+    /**
+     * 用户的所有缓存
+     * @param principal
+     * @return
+     */
+    public static PermitInvalidation principal(Object principal) {
+        return new PermitInvalidation(Scope.PRINCIPAL, principal, null, null);
+    }
+
+    /**
+     * 用户对某个根资源的缓存
+     * @param principal
+     * @param type
+     * @param value
+     * @return
+     */
+    public static PermitInvalidation entry(Object principal, String type,
+            Object value) {
+        return new PermitInvalidation(Scope.ENTRY, principal, type, value);
+    }
+
+    /**
+     * 所有用户对某个根资源的缓存
+     * @param type
+     * @param value
+     * @return
+     */
+    public static PermitInvalidation root(String type, Object value) {
+        return new PermitInvalidation(Scope.ROOT, null, type, value);
+    }
+
+    /**
+     * 是否影响缓存的结果，共享缓存实现可以用来筛选失效的结果
+     * @param key
+     * @return
+     */
+    public boolean matches(PermitDecisionKey key) {
+        switch (this.scope) {
+        case PRINCIPAL:
+            return Objects.equals(this.principal, key.getPrincipal());
+        case ENTRY:
+            return Objects.equals(this.principal, key.getPrincipal())
+                    && Objects.equals(this.type, key.getType()) && Objects
+                    .equals(this.value, key.getValue());
+        case ROOT:
+            return Objects.equals(this.type, key.getType()) && Objects
+                    .equals(this.value, key.getValue());
+        default:
+            return true;
+        }
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public Object getPrincipal() {
+        return principal;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "PermitInvalidation{" + scope + ", principal=" + principal
+                + ", type=" + type + ", value=" + value + '}';
+    }
+
+    /**
+     * 失效范围
+     */
+    public enum Scope {
+        /** 所有缓存 */
+        ALL,
+        /** 用户的所有缓存 */
+        PRINCIPAL,
+        /** 用户对某个根资源的缓存 */
+        ENTRY,
+        /** 所有用户对某个根资源的缓存 */
+        ROOT
+    }
+}
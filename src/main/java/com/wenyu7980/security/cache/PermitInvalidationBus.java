@@ -0,0 +1,38 @@
+package com.wenyu7980.security.cache;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.function.Consumer;
+
+/**
+ * 缓存失效事件总线
+ * 多实例部署时实现为消息广播(如Redis pub/sub，MQ)，所有节点收到后清除本地缓存
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public interface PermitInvalidationBus {
+    /**
+     * 广播失效事件，发布节点自己不要求收到
+     * @param invalidation
+     */
+    void publish(PermitInvalidation invalidation);
+
+    /**
+     * 订阅失效事件
+     * @param listener
+     */
+    void subscribe(Consumer<PermitInvalidation> listener);
+}
@@ -0,0 +1,47 @@
+package com.wenyu7980.security.cache;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.time.Duration;
+
+/**
+ * 共享缓存层
+ * 多个节点共享的根校验结果缓存(如Redis)，位于本地缓存之后
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public interface PermitSharedCache {
+    /**
+     * 获取缓存的校验结果
+     * @param key
+     * @return null表示未缓存
+     */
+    Boolean get(PermitDecisionKey key);
+
+    /**
+     * 缓存校验结果
+     * @param key
+     * @param granted
+     * @param ttl
+     */
+    void put(PermitDecisionKey key, boolean granted, Duration ttl);
+
+    /**
+     * 失效
+     * @param invalidation
+     */
+    void invalidate(PermitInvalidation invalidation);
+}
@@ -0,0 +1,198 @@
+package com.wenyu7980.security.cache;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 两级根校验结果缓存
+ * 本地缓存在前，共享缓存在后；失效时清除共享缓存并通过事件总线通知所有节点清除本地缓存。
+ * 本地缓存的ttl限制了丢失失效事件时的过期时间
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class TieredPermitDecisionCache implements PermitDecisionCache {
+    /** 本地缓存 */
+    private final LocalPermitDecisionCache near;
+    /** 共享缓存，null表示只使用本地缓存 */
+    private final PermitSharedCache shared;
+    private final PermitInvalidationBus bus;
+    /** 共享缓存时间 */
+    private final Duration ttl;
+    /** 本地状态的失效订阅 */
+    private final List<Consumer<PermitInvalidation>> listeners = new CopyOnWriteArrayList<>();
+    /** 本节点正在发布的失效事件，进程内总线同步投递回本节点时跳过 */
+    private final Set<PermitInvalidation> publishing = ConcurrentHashMap
+            .newKeySet();
+
+    public TieredPermitDecisionCache(LocalPermitDecisionCache near,
+            PermitSharedCache shared, PermitInvalidationBus bus,
+            Duration ttl) {
+        this.near = near;
+        this.shared = shared;
+        this.bus = bus;
+        this.ttl = ttl;
+        bus.subscribe(this::receive);
+    }
+
+    @Override
+    public Boolean get(PermitDecisionKey key) {
+        long generation = this.near.generation(key);
+        Boolean granted = this.near.get(key);
+        if (Objects.nonNull(granted) || Objects.isNull(this.shared)) {
+            return granted;
+        }
+        granted = this.shared.get(key);
+        if (Objects.nonNull(granted)) {
+            this.near.put(key, granted, generation);
+        }
+        return granted;
+    }
+
+    @Override
+    public void put(PermitDecisionKey key, boolean granted) {
+        this.near.put(key, granted);
+        if (Objects.nonNull(this.shared)) {
+            this.shared.put(key, granted, this.ttl);
+        }
+    }
+
+    @Override
+    public long generation(PermitDecisionKey key) {
+        return this.near.generation(key);
+    }
+
+    /**
+     * 校验期间本节点发生过失效时不写入；
+     * 写入共享缓存后版本发生变化时，失效可能在写入之前清除了共享缓存，撤销写入的结果
+     * @param key
+     * @param granted
+     * @param generation get之前获取的失效版本
+     */
+    @Override
+    public void put(PermitDecisionKey key, boolean granted, long generation) {
+        if (this.near.generation(key) != generation) {
+            return;
+        }
+        this.near.put(key, granted, generation);
+        if (Objects.nonNull(this.shared)) {
+            this.shared.put(key, granted, this.ttl);
+            if (this.near.generation(key) != generation) {
+                this.shared.invalidate(PermitInvalidation
+                        .entry(key.getPrincipal(), key.getType(),
+                                key.getValue()));
+            }
+        }
+    }
+
+    @Override
+    public void invalidate(Object principal) {
+        this.invalidate(PermitInvalidation.principal(principal));
+    }
+
+    @Override
+    public void invalidate(Object principal, String type, Object value) {
+        this.invalidate(PermitInvalidation.entry(principal, type, value));
+    }
+
+    @Override
+    public void invalidateRoot(String type, Object value) {
+        this.invalidate(PermitInvalidation.root(type, value));
+    }
+
+    @Override
+    public void invalidateAll() {
+        this.invalidate(PermitInvalidation.all());
+    }
+
+    /**
+     * 本地缓存的统计
+     * @return
+     */
+    @Override
+    public PermitCacheStats stats() {
+        return this.near.stats();
+    }
+
+    /**
+     * 订阅失效事件，用于清除其他本地状态
+     * 本节点发起和其他节点广播的失效都会通知
+     * @param listener
+     */
+    public void subscribe(Consumer<PermitInvalidation> listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * 清除共享缓存和本节点，再通知其他节点
+     * 清除共享缓存前后都推进失效版本，期间读取或者写入共享缓存的结果不会留在缓存中
+     * @param invalidation
+     */
+    private void invalidate(PermitInvalidation invalidation) {
+        if (Objects.nonNull(this.shared)) {
+            this.near.advance();
+            this.shared.invalidate(invalidation);
+        }
+        this.apply(invalidation);
+        this.publishing.add(invalidation);
+        try {
+            this.bus.publish(invalidation);
+        } finally {
+            this.publishing.remove(invalidation);
+        }
+    }
+
+    /**
+     * 收到失效事件，跳过本节点发布的
+     * @param invalidation
+     */
+    private void receive(PermitInvalidation invalidation) {
+        if (!this.publishing.contains(invalidation)) {
+            this.apply(invalidation);
+        }
+    }
+
+    /**
+     * 清除本地缓存和本地状态
+     * @param invalidation
+     */
+    private void apply(PermitInvalidation invalidation) {
+        switch (invalidation.getScope()) {
+        case PRINCIPAL:
+            this.near.invalidate(invalidation.getPrincipal());
+            break;
+        case ENTRY:
+            this.near.invalidate(invalidation.getPrincipal(),
+                    invalidation.getType(), invalidation.getValue());
+            break;
+        case ROOT:
+            this.near.invalidateRoot(invalidation.getType(),
+                    invalidation.getValue());
+            break;
+        default:
+            this.near.invalidateAll();
+        }
+        for (Consumer<PermitInvalidation> listener : this.listeners) {
+            listener.accept(invalidation);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * 可缓存根校验结果的PermitConfig
+ * 根校验结果只由当前用户、被校验值和Permit.type决定时实现该接口，
+ * 同时开启data-permit.cache.enabled后根校验结果会被缓存
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public interface CacheablePermitConfig extends PermitConfig {
+    /**
+     * 当前用户
+     * @return null时不使用缓存
+     */
+    Object principal();
+}
@@ -0,0 +1,36 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+
+import java.util.Collection;
+
+/**
+ * 可列举根校验通过值的PermitConfig
+ * 查询前生成权限条件时需要实现该接口，
+ * 见{@link com.wenyu7980.security.predicate.PermitPredicateBuilder}
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public interface GrantablePermitConfig extends PermitConfig {
+    /**
+     * 当前用户根校验通过的值
+     * @param permit 根校验的Permit
+     * @return null表示全部通过
+     */
+    Collection<?> grants(Permit permit);
+}
@@ -1,21 +1,18 @@
 package com.wenyu7980.security.core;
 
-import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.annotation.PermitBatch;
 import com.wenyu7980.security.annotation.PermitMethod;
-import com.wenyu7980.security.annotation.Permits;
 import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
-import org.springframework.beans.BeansException;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.ApplicationContext;
-import org.springframework.context.ApplicationContextAware;
 import org.springframework.stereotype.Component;
 
-import java.lang.reflect.*;
+import java.lang.reflect.Method;
 import java.text.MessageFormat;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -42,12 +39,16 @@ import java.util.Optional;
  */
 @Component
 @Aspect
-public class PermitAspect implements ApplicationContextAware {
-    /** 保存数据访问bean */
-    private List<Permittable> permittables;
+public class PermitAspect {
+    /** 权限校验 */
+    @Autowired
+    private PermitEvaluator evaluator;
 
     @Autowired
     private PermitConfig permitUserCheck;
+    /** 响应式返回值处理，reactor不存在时为null */
+    @Autowired(required = false)
+    private PermitReactiveHandler reactive;
 
     @Pointcut("@annotation(com.wenyu7980.security.annotation.PermitMethod)")
     public void method() {
@@ -56,213 +57,125 @@ public class PermitAspect implements ApplicationContextAware {
     /**
      * 对PermitMethod切面，判断是否对返回数据有访问权限
      * 如果没有权限，抛出PermissionInsufficientException异常
+     * 批量返回值按PermitMethod.batch拒绝或者过滤
+     * PermitMethod.redact为true时，没有权限的复杂类型属性脱敏
+     * PermitMethod.before设定时，方法执行前按参数校验上级资源，不校验返回值，
+     * 返回Mono和Flux时校验推迟到订阅时
+     * Mono和Flux返回值将校验组合到返回值中
+     * 校验过程中查询上级资源时不再重复校验，由当前校验处理
      *
-     * @param ret
-     * @throws IllegalAccessException
-     * @throws NoSuchMethodException
-     * @throws NoSuchFieldException
-     * @throws InstantiationException
-     * @throws InvocationTargetException
+     * @param joinPoint
+     * @param permitMethod
+     * @return
+     * @throws Throwable
      */
-    @AfterReturning(pointcut = "method() && @annotation(permitMethod)", returning = "ret")
-    public void permit(JoinPoint joinPoint, Object ret,
-            PermitMethod permitMethod)
-            throws IllegalAccessException, NoSuchMethodException,
-            NoSuchFieldException, InstantiationException,
-            InvocationTargetException {
-
+    @Around("method() && @annotation(permitMethod)")
+    public Object permit(ProceedingJoinPoint joinPoint,
+            PermitMethod permitMethod) throws Throwable {
+        if (!Permittable.class.equals(permitMethod.before())) {
+            return this.before(joinPoint, permitMethod);
+        }
+        Object ret = joinPoint.proceed();
         if (Objects.isNull(ret)) {
-            return;
+            return ret;
         }
-        if (ret instanceof Optional && !((Optional) ret).isPresent()) {
-            return;
+        if (Objects.nonNull(PermitContext.current())) {
+            return ret;
         }
-        if (!this.checkPermit(ret)) {
-            throw this.permitUserCheck.exception(MessageFormat
-                    .format(permitMethod.message(), joinPoint.getArgs()[0],
-                            joinPoint.getSignature().getDeclaringType()
-                                    .getSimpleName()));
+        if (Objects.nonNull(this.reactive) && this.reactive.supports(ret)) {
+            return this.reactive.permit(ret, permitMethod,
+                    () -> this.exception(joinPoint, permitMethod));
         }
-    }
-
-    /**
-     * 获取类中roots同时校验Superior
-     * @param obj
-     * @return
-     * @throws IllegalAccessException
-     * @throws NoSuchMethodException
-     * @throws InstantiationException
-     * @throws InvocationTargetException
-     * @throws NoSuchFieldException
-     * @return true: 允许访问
-     *         false: 不允许访问
-     */
-    private boolean checkPermit(Object obj)
-            throws IllegalAccessException, NoSuchMethodException,
-            InstantiationException, InvocationTargetException,
-            NoSuchFieldException {
-        if (Objects.isNull(obj)) {
-            return false;
+        if (ret instanceof Optional && !((Optional) ret).isPresent()) {
+            return ret;
         }
-        // Optional 处理
-        if (obj instanceof Optional) {
-            if (!((Optional) obj).isPresent()) {
-                return false;
+        if (PermitResults.isBatch(ret)) {
+            List<Object> elements = PermitResults.elements(ret);
+            Method method = ((MethodSignature) joinPoint.getSignature())
+                    .getMethod();
+            boolean[] granted = permitMethod.redact() ?
+                    this.evaluator.redactAll(elements, method) :
+                    this.evaluator.checkAll(elements, method);
+            if (permitMethod.batch() == PermitBatch.FILTER) {
+                return PermitResults.filter(ret, elements, granted,
+                        ((MethodSignature) joinPoint.getSignature())
+                                .getReturnType());
             }
-            obj = ((Optional) obj).get();
-        }
-        // 数据类型
-        Class<?> clazz = obj.getClass();
-
-        // 存储非root Permit
-        List<PermitWrapper> wrappers = new ArrayList<>();
-        // 遍历属性
-        Field[] fields = clazz.getDeclaredFields();
-        for (int i = 0; i < fields.length; i++) {
-            Field field = fields[i];
-            Permit permit = field.getAnnotation(Permit.class);
-            if (Objects.nonNull(permit)) {
-                field.setAccessible(true);
-                Object value = field.get(obj);
-                if (Objects.nonNull(value)) {
-                    if (!"".equals(permit.dynamic())) {
-                        // 动态
-                        Field dynamic = clazz
-                                .getDeclaredField(permit.dynamic());
-                        dynamic.setAccessible(true);
-                        wrappers.add(new PermitWrapper(permit,
-                                ((PermitDynamicType) dynamic.get(obj)).type(),
-                                value));
-                    } else {
-                        wrappers.add(new PermitWrapper(permit, value));
-                    }
+            for (boolean g : granted) {
+                if (!g) {
+                    throw this.exception(joinPoint, permitMethod);
                 }
             }
+            return PermitResults.restore(ret, elements);
         }
-        // 类型上权限注解
-        Permits permits = obj.getClass().getAnnotation(Permits.class);
-        if (Objects.nonNull(permits)) {
-            out:
-            for (int i = 0; i < permits.permits().length; i++) {
-                Permit permit = permits.permits()[i];
-                Object[] values = new Object[permit.names().length];
-                for (int j = 0; j < permit.names().length; j++) {
-                    Field field = clazz.getDeclaredField(permit.names()[j]);
-                    field.setAccessible(true);
-                    if (Objects.isNull(field.get(obj))) {
-                        continue out;
-                    }
-                    values[j] = field.get(obj);
-                }
-                if (!"".equals(permit.dynamic())) {
-                    // 动态
-                    Field dynamic = clazz.getDeclaredField(permit.dynamic());
-                    dynamic.setAccessible(true);
-                    wrappers.add(new PermitWrapper(permit,
-                            ((PermitDynamicType) dynamic.get(obj)).type(),
-                            values));
-                } else {
-                    wrappers.add(new PermitWrapper(permit, values));
-                }
-            }
+        Method method = ((MethodSignature) joinPoint.getSignature())
+                .getMethod();
+        if (!(permitMethod.redact() ?
+                this.evaluator.redact(ret, method) :
+                this.evaluator.check(ret, method))) {
+            throw this.exception(joinPoint, permitMethod);
         }
-        for (PermitWrapper wrapper : wrappers) {
-            // root
-            if (wrapper.permit.root()) {
-                if (this.permitUserCheck
-                        .checkPermit(wrapper.values[0], wrapper.permit)) {
-                    return true;
-                }
-            }
-            if (Objects.isNull(wrapper.clazz)) {
-                // 复杂类型
-                if (this.checkPermit(wrapper.values[0])) {
-                    return true;
-                }
-            } else {
-                // 非复杂类型
-                if (this.checkSuperior(wrapper.clazz, wrapper.values)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return ret;
     }
 
     /**
-     * 校验复杂上级资源
-     * @param clazz
-     * @param parameters
-     * @throws NoSuchMethodException
-     * @throws IllegalAccessException
-     * @throws InvocationTargetException
-     * @throws InstantiationException
+     * 方法执行前按参数校验上级资源
+     * @param joinPoint
+     * @param permitMethod
+     * @return
+     * @throws Throwable
      */
-    private boolean checkSuperior(Class<?> clazz, Object... parameters)
-            throws NoSuchMethodException, IllegalAccessException,
-            InvocationTargetException, InstantiationException,
-            NoSuchFieldException {
-        Permittable permittable = this.permittables.stream()
-                .filter(permit -> clazz.isAssignableFrom(permit.type()))
-                .findFirst().orElseThrow(() -> new RuntimeException(
-                        MessageFormat.format("{0}没有Permittable相应的实现",
-                                clazz.getName())));
-        Method method = permittable.getClass()
-                .getMethod("findPermitById", Object.class);
-        Type[] types = clazz.getGenericInterfaces();
-        Class<?> actual = null;
-        for (int j = 0; j < types.length; j++) {
-            if (Objects.equals(((ParameterizedType) types[j]).getRawType(),
-                    Permittable.class)) {
-                // 第二个泛型类型参数为查询ID类型
-                actual = (Class<?>) ((ParameterizedType) types[j])
-                        .getActualTypeArguments()[1];
-                break;
-            }
+    private Object before(ProceedingJoinPoint joinPoint,
+            PermitMethod permitMethod) throws Throwable {
+        if (Objects.nonNull(PermitContext.current())) {
+            return joinPoint.proceed();
         }
-        // 获取构造函数
-        Constructor[] constructors = actual.getConstructors();
-        for (int j = 0; j < constructors.length; j++) {
-            if (constructors[j].getParameterCount() == parameters.length) {
-                Optional optional = permittable.findPermitById(
-                        constructors[j].newInstance(parameters));
-                return this.checkPermit(optional);
+        Method method = ((MethodSignature) joinPoint.getSignature())
+                .getMethod();
+        Object[] args = joinPoint.getArgs();
+        int[] arguments = permitMethod.arguments();
+        Object[] values = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            if (arguments[i] < 0 || arguments[i] >= args.length) {
+                throw new RuntimeException(MessageFormat
+                        .format("{0}不存在位置为{1}的参数", method,
+                                arguments[i]));
             }
+            values[i] = args[arguments[i]];
         }
-        throw new RuntimeException(MessageFormat
-                .format("{0}构造函数的参数与PermitSuperiors注解中的{1}的names长度不一致",
-                        actual.getName(), clazz.getName()));
-    }
-
-    @Override
-    public void setApplicationContext(ApplicationContext applicationContext)
-            throws BeansException {
-        this.permittables = new ArrayList<>();
-        this.permittables
-                .addAll(applicationContext.getBeansOfType(Permittable.class)
-                        .values());
+        if (Objects.nonNull(this.reactive) && this.reactive
+                .supportsType(method.getReturnType())) {
+            return this.reactive.before(method.getReturnType(),
+                    () -> this.evaluator
+                            .checkId(permitMethod.before(), values, method),
+                    () -> {
+                        try {
+                            return joinPoint.proceed();
+                        } catch (Exception | Error e) {
+                            throw e;
+                        } catch (Throwable e) {
+                            throw new RuntimeException(e);
+                        }
+                    }, () -> this.exception(joinPoint, permitMethod));
+        }
+        if (!this.evaluator.checkId(permitMethod.before(), values, method)) {
+            throw this.exception(joinPoint, permitMethod);
+        }
+        return joinPoint.proceed();
     }
 
     /**
-     * 权限限制包装
+     * 权限不足异常
+     * @param joinPoint
+     * @param permitMethod
+     * @return
      */
-    protected static class PermitWrapper {
-        private Permit permit;
-        private Object[] values;
-        private Class<? extends Permittable> clazz;
-
-        public PermitWrapper(Permit permit, Object... values) {
-            this.permit = permit;
-            this.clazz = Permittable.class.equals(permit.clazz()) ?
-                    null :
-                    permit.clazz();
-            this.values = values;
-        }
-
-        public PermitWrapper(Permit permit, Class clazz, Object... values) {
-            this.permit = permit;
-            this.clazz = clazz;
-            this.values = values;
-        }
+    private RuntimeException exception(JoinPoint joinPoint,
+            PermitMethod permitMethod) {
+        Object[] args = joinPoint.getArgs();
+        return this.permitUserCheck.exception(MessageFormat
+                .format(permitMethod.message(), args.length > 0 ? args[0] : "",
+                        joinPoint.getSignature().getDeclaringType()
+                                .getSimpleName()));
     }
 }
@@ -0,0 +1,117 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已加载的上级资源判断
+ * 存在JPA时通过PersistenceUtil判断是否已经加载；Hibernate代理即使已经初始化，属性也在代理的目标对象上，
+ * 不能按代理的类型读取权限属性，同样视为未加载；
+ * 上级资源的ID由@Id、@EmbeddedId或者Spring Data的@Id属性读取，与查询ID一致时才能直接使用
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+final class PermitAssociations {
+    private static final boolean JPA_PRESENT = ClassUtils
+            .isPresent("javax.persistence.Persistence",
+                    PermitAssociations.class.getClassLoader());
+    private static final Class<?> HIBERNATE_PROXY = ClassUtils
+            .isPresent("org.hibernate.proxy.HibernateProxy",
+                    PermitAssociations.class.getClassLoader()) ?
+            ClassUtils.resolveClassName("org.hibernate.proxy.HibernateProxy",
+                    PermitAssociations.class.getClassLoader()) :
+            null;
+    /** ID属性上的注解 */
+    private static final Collection<String> IDS = new HashSet<>(Arrays
+            .asList("javax.persistence.Id", "javax.persistence.EmbeddedId",
+                    "org.springframework.data.annotation.Id"));
+    /** 类型 -> ID属性，没有或者有多个时为空 */
+    private static final Map<Class<?>, Optional<Field>> FIELDS = new ConcurrentHashMap<>();
+
+    private PermitAssociations() {
+    }
+
+    /**
+     * 是否可以直接作为上级资源
+     * @param value
+     * @return
+     */
+    static boolean loaded(Object value) {
+        if (Objects.isNull(value)) {
+            return false;
+        }
+        if (Objects.nonNull(HIBERNATE_PROXY) && HIBERNATE_PROXY
+                .isInstance(value)) {
+            return false;
+        }
+        return !JPA_PRESENT || PermitPersistence.isLoaded(value);
+    }
+
+    /**
+     * 上级资源的ID是否与查询ID一致
+     * @param value
+     * @param id 查询ID
+     * @return 无法读取上级资源的ID时为false
+     */
+    static boolean identified(Object value, Object id) {
+        Optional<Field> field = FIELDS.get(value.getClass());
+        if (Objects.isNull(field)) {
+            field = FIELDS.computeIfAbsent(value.getClass(),
+                    PermitAssociations::field);
+        }
+        return field.isPresent() && Objects
+                .equals(ReflectionUtils.getField(field.get(), value), id);
+    }
+
+    /**
+     * ID属性，IdClass复合ID有多个ID属性，无法与查询ID比较
+     * @param clazz
+     * @return
+     */
+    private static Optional<Field> field(Class<?> clazz) {
+        Field id = null;
+        for (Class<?> c = clazz; Objects.nonNull(c) && !Object.class
+                .equals(c); c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                for (Annotation annotation : field.getAnnotations()) {
+                    if (IDS.contains(annotation.annotationType().getName())) {
+                        if (Objects.nonNull(id)) {
+                            return Optional.empty();
+                        }
+                        id = field;
+                        break;
+                    }
+                }
+            }
+        }
+        if (Objects.nonNull(id)) {
+            ReflectionUtils.makeAccessible(id);
+        }
+        return Optional.ofNullable(id);
+    }
+}
@@ -0,0 +1,352 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.metrics.PermitMetrics;
+import com.wenyu7980.security.trace.PermitTrace;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 批量校验
+ * 按层展开上级资源，每一层同一服务类的上级资源通过findPermitByIds一次查询，
+ * association属性中已加载的上级资源不查询，和查询的上级资源一样在下一层展开
+ * 上级资源通过时，依赖它的数据和上级资源都通过
+ * 所有数据都通过、没有待查询的上级资源或者达到最大深度时结束
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+final class PermitBatchResolver {
+    private final PermitPlanRegistry plans;
+    private final PermittableRegistry permittables;
+    private final PermitRootDecider roots;
+    private final PermitMetrics metrics;
+    private final PermitContext context;
+    /** 上级资源最大深度 */
+    private final int maxDepth;
+    /** 正在展开的数据，复杂类型属性出现环时跳过 */
+    private final List<Object> path = new ArrayList<>();
+    /** 上级资源 */
+    private final Map<PermitKey, Owner> superiors = new HashMap<>();
+    /** 待查询的上级资源 */
+    private Map<PermittableBinding, Set<Object>> pending = new LinkedHashMap<>();
+    /** 已加载的待展开上级资源 */
+    private Map<Owner, Object> preloaded = new LinkedHashMap<>();
+    /** 未通过的数据数量 */
+    private int remaining;
+    /** 已经查询的层数 */
+    private int levels;
+
+    PermitBatchResolver(PermitPlanRegistry plans,
+            PermittableRegistry permittables, PermitRootDecider roots,
+            PermitMetrics metrics, PermitContext context, int maxDepth) {
+        this.plans = plans;
+        this.permittables = permittables;
+        this.roots = roots;
+        this.metrics = metrics;
+        this.context = context;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * 批量校验
+     * @param objs
+     * @return 与objs顺序一致的校验结果，null数据为true
+     */
+    boolean[] resolve(List<?> objs) {
+        Owner[] owners = new Owner[objs.size()];
+        for (int i = 0; i < owners.length; i++) {
+            owners[i] = new Owner(null);
+            this.remaining++;
+            if (Objects.isNull(objs.get(i))) {
+                this.grant(owners[i]);
+            } else {
+                this.expand(owners[i], objs.get(i));
+            }
+        }
+        while (this.remaining > 0 && !(this.pending.isEmpty() && this.preloaded
+                .isEmpty()) && this.levels < this.maxDepth) {
+            this.next();
+        }
+        for (int i = 0; i < this.levels; i++) {
+            this.context.exit();
+        }
+        this.record();
+        boolean[] granted = new boolean[owners.length];
+        for (int i = 0; i < owners.length; i++) {
+            granted[i] = owners[i].granted;
+        }
+        return granted;
+    }
+
+    /**
+     * 查询下一层上级资源并展开
+     */
+    private void next() {
+        Map<PermittableBinding, Set<Object>> level = this.pending;
+        Map<Owner, Object> loaded = this.preloaded;
+        this.pending = new LinkedHashMap<>();
+        this.preloaded = new LinkedHashMap<>();
+        this.context.enter();
+        this.levels++;
+        for (Map.Entry<Owner, Object> entry : loaded.entrySet()) {
+            Owner owner = entry.getKey();
+            if (!owner.loaded && owner.needed()) {
+                owner.loaded = true;
+                this.expand(owner, entry.getValue());
+            }
+        }
+        for (Map.Entry<PermittableBinding, Set<Object>> entry : level
+                .entrySet()) {
+            PermittableBinding binding = entry.getKey();
+            List<Object> ids = new ArrayList<>(entry.getValue().size());
+            for (Object id : entry.getValue()) {
+                Owner owner = this.superiors
+                        .get(new PermitKey(binding.getType(), id));
+                owner.queued = false;
+                if (!owner.loaded && owner.needed()) {
+                    owner.loaded = true;
+                    ids.add(id);
+                }
+            }
+            if (ids.isEmpty()) {
+                continue;
+            }
+            this.context.lookup();
+            PermitTrace trace = this.context.getTrace();
+            Map<?, ?> found;
+            if (this.metrics.enabled() || Objects.nonNull(trace)) {
+                long start = System.nanoTime();
+                found = binding.findAll(ids);
+                long nanos = System.nanoTime() - start;
+                if (this.metrics.enabled()) {
+                    this.metrics.lookup(binding.getType(), nanos);
+                }
+                if (Objects.nonNull(trace)) {
+                    trace.lookup(-1, binding.getType().getSimpleName() + " x"
+                            + ids.size(), !found.isEmpty(), nanos);
+                }
+            } else {
+                found = binding.findAll(ids);
+            }
+            for (Object id : ids) {
+                Object obj = found.get(id);
+                Owner owner = this.superiors
+                        .get(new PermitKey(binding.getType(), id));
+                if (Objects.nonNull(obj) && !owner.granted) {
+                    this.expand(owner, obj);
+                }
+            }
+        }
+    }
+
+    /**
+     * 展开数据的权限节点
+     * @param owner 数据所属的校验节点
+     * @param obj
+     */
+    private void expand(Owner owner, Object obj) {
+        // Optional 处理
+        if (obj instanceof Optional) {
+            if (!((Optional) obj).isPresent()) {
+                return;
+            }
+            obj = ((Optional) obj).get();
+        }
+        for (Object expanding : this.path) {
+            if (expanding == obj) {
+                return;
+            }
+        }
+        this.path.add(obj);
+        try {
+            this.expand(owner, obj, this.plans.plan(obj.getClass()));
+        } finally {
+            this.path.remove(this.path.size() - 1);
+        }
+    }
+
+    /**
+     * 展开数据的权限节点
+     * @param owner
+     * @param obj
+     * @param plan
+     */
+    private void expand(Owner owner, Object obj, PermitPlan plan) {
+        for (PermitNode node : plan.getNodes()) {
+            if (owner.granted) {
+                return;
+            }
+            Object[] values = node.values(obj);
+            if (Objects.isNull(values)) {
+                continue;
+            }
+            if (node.getPermit().root() && this
+                    .root(values[0], node.getPermit())) {
+                this.grant(owner);
+                return;
+            }
+            Class<?> clazz = node.type(obj);
+            if (Objects.isNull(clazz)) {
+                // 复杂类型
+                this.expand(owner, values[0]);
+            } else {
+                this.depend(owner, this.permittables.binding(clazz),
+                        values, node, obj);
+            }
+        }
+    }
+
+    /**
+     * 根校验，采样时记录耗时和结果
+     * @param value
+     * @param permit
+     * @return
+     */
+    private boolean root(Object value, Permit permit) {
+        PermitTrace trace = this.context.getTrace();
+        if (Objects.isNull(trace)) {
+            return this.roots.check(value, permit);
+        }
+        long start = System.nanoTime();
+        boolean granted = this.roots.check(value, permit);
+        trace.root(-1, permit, value, granted, System.nanoTime() - start);
+        return granted;
+    }
+
+    /**
+     * 记录对上级资源的依赖
+     * @param owner
+     * @param binding
+     * @param values
+     * @param node 权限节点，读取association属性中已加载的上级资源
+     * @param obj
+     */
+    private void depend(Owner owner, PermittableBinding binding,
+            Object[] values, PermitNode node, Object obj) {
+        Object id = binding.id(values);
+        PermitKey key = new PermitKey(binding.getType(), id);
+        Boolean decision = this.context.decision(key);
+        if (Objects.nonNull(decision)) {
+            if (decision) {
+                this.grant(owner);
+            }
+            return;
+        }
+        Owner superior = this.superiors.get(key);
+        if (Objects.isNull(superior)) {
+            superior = new Owner(key);
+            this.superiors.put(key, superior);
+        }
+        if (superior.granted) {
+            this.grant(owner);
+            return;
+        }
+        superior.parents.add(owner);
+        if (superior.loaded) {
+            return;
+        }
+        Object loaded = node.superior(obj, id);
+        if (Objects.nonNull(loaded)) {
+            // 已加载的上级资源在下一层展开，展开后待查询中的不再查询
+            this.preloaded.putIfAbsent(superior, loaded);
+        } else if (!superior.queued) {
+            // 新的或者之前不需要而没有查询的上级资源
+            superior.queued = true;
+            this.pending.computeIfAbsent(binding, b -> new LinkedHashSet<>())
+                    .add(id);
+        }
+    }
+
+    /**
+     * 通过，并传递到依赖它的节点
+     * @param owner
+     */
+    private void grant(Owner owner) {
+        if (owner.granted) {
+            return;
+        }
+        owner.granted = true;
+        if (Objects.isNull(owner.key)) {
+            this.remaining--;
+        }
+        for (Owner parent : owner.parents) {
+            this.grant(parent);
+        }
+        owner.parents.clear();
+    }
+
+    /**
+     * 记录确定的上级资源结果
+     * 通过的一定是确定的；全部展开结束时已经展开且未通过的也是确定的，
+     * 不再需要而没有展开的上级资源不记录
+     */
+    private void record() {
+        boolean complete = this.pending.isEmpty() && this.preloaded.isEmpty();
+        for (Owner owner : this.superiors.values()) {
+            if (owner.granted) {
+                this.context.record(owner.key, true);
+            } else if (complete && owner.loaded) {
+                this.context.record(owner.key, false);
+            }
+        }
+    }
+
+    /**
+     * 校验节点
+     */
+    private static final class Owner {
+        /** 上级资源标识，数据本身为null */
+        private final PermitKey key;
+        /** 依赖该节点的节点 */
+        private final List<Owner> parents = new ArrayList<>(1);
+        private boolean granted;
+        /** 是否已经查询或者展开已加载的数据 */
+        private boolean loaded;
+        /** 是否在待查询中 */
+        private boolean queued;
+
+        private Owner(PermitKey key) {
+            this.key = key;
+        }
+
+        /**
+         * 是否还需要查询
+         * 依赖它的节点都已经通过时不需要
+         * @return
+         */
+        private boolean needed() {
+            if (this.granted) {
+                return false;
+            }
+            for (Owner parent : this.parents) {
+                if (!parent.granted) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
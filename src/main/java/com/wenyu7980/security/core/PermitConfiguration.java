@@ -0,0 +1,177 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.accessor.PermitAccessorFactory;
+import com.wenyu7980.security.cache.*;
+import com.wenyu7980.security.metrics.PermitMetrics;
+import com.wenyu7980.security.predicate.PermitPredicateBuilder;
+import com.wenyu7980.security.trace.PermitTracer;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+
+/**
+ * 数据权限组件配置
+ * 用户注入的同类型Bean优先
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+@Configuration
+@EnableConfigurationProperties(PermitProperties.class)
+public class PermitConfiguration {
+
+    @Bean
+    public PermitPlanRegistry permitPlanRegistry(PermitProperties properties,
+            ObjectProvider<PermitAccessorFactory> accessors) {
+        return new PermitPlanRegistry(accessors
+                .getIfAvailable(() -> properties.getAccessor().factory()));
+    }
+
+    @Bean
+    public PermittableRegistry permittableRegistry(
+            ObjectProvider<Permittable<?, ?>> permittables,
+            PermitPlanRegistry plans,
+            ObjectProvider<PermitGuard> guard) {
+        PermittableRegistry registry = new PermittableRegistry(permittables,
+                plans);
+        guard.ifAvailable(registry::setGuard);
+        return registry;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "data-permit.guard", name = "enabled", havingValue = "true")
+    public PermitGuard permitGuard(PermitConfig permitConfig,
+            PermitProperties properties,
+            ObjectProvider<TaskDecorator> decorator) {
+        return new PermitGuard(properties.getGuard(), permitConfig,
+                decorator.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "data-permit.cache", name = "enabled", havingValue = "true")
+    public TieredPermitDecisionCache permitDecisionCache(
+            PermitProperties properties,
+            ObjectProvider<PermitSharedCache> shared,
+            ObjectProvider<PermitInvalidationBus> bus) {
+        PermitProperties.Cache cache = properties.getCache();
+        PermitSharedCache sharedCache = shared.getIfAvailable();
+        Duration near = Objects.nonNull(sharedCache) && Objects
+                .nonNull(cache.getNearTtl()) ? cache.getNearTtl() : cache.getTtl();
+        return new TieredPermitDecisionCache(
+                new LocalPermitDecisionCache(cache.getMaximumSize(), near),
+                sharedCache,
+                bus.getIfAvailable(LoopbackPermitInvalidationBus::new),
+                cache.getTtl());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "data-permit.root-set", name = "enabled", havingValue = "true")
+    public PermitRootSets permitRootSets(PermitConfig permitConfig,
+            PermitProperties properties) {
+        if (!(permitConfig instanceof RootSetPermitConfig)) {
+            throw new RuntimeException(MessageFormat
+                    .format("{0}需要实现RootSetPermitConfig",
+                            permitConfig.getClass().getName()));
+        }
+        return new PermitRootSets((RootSetPermitConfig) permitConfig,
+                properties.getRootSet().getTtl(),
+                properties.getRootSet().getMaximumSize());
+    }
+
+    @Bean
+    public PermitRootDecider permitRootDecider(PermitConfig permitConfig,
+            ObjectProvider<PermitDecisionCache> cache,
+            ObjectProvider<PermitMetrics> metrics,
+            ObjectProvider<PermitRootSets> rootSets) {
+        PermitDecisionCache decisionCache = cache.getIfAvailable();
+        PermitRootDecider decider = new PermitRootDecider(permitConfig,
+                decisionCache);
+        metrics.ifAvailable(decider::setMetrics);
+        rootSets.ifAvailable(sets -> {
+            decider.setRootSets(sets);
+            // 根校验结果失效时同时清除根资源集合
+            if (decisionCache instanceof TieredPermitDecisionCache) {
+                ((TieredPermitDecisionCache) decisionCache)
+                        .subscribe(sets::apply);
+            }
+        });
+        return decider;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "data-permit.parallel", name = "enabled", havingValue = "true")
+    public PermitParallel permitParallel(PermitProperties properties,
+            @Qualifier("permitExecutor") ObjectProvider<Executor> executor,
+            ObjectProvider<TaskDecorator> decorator) {
+        return new PermitParallel(executor.getIfAvailable(),
+                decorator.getIfAvailable(),
+                properties.getParallel().getThreads(),
+                properties.getParallel().getTimeout().toMillis());
+    }
+
+    @Bean
+    public PermitEvaluator permitEvaluator(PermitPlanRegistry plans,
+            PermittableRegistry permittables, PermitRootDecider roots,
+            PermitConfig permitConfig, PermitProperties properties,
+            ObjectProvider<PermitParallel> parallel,
+            ObjectProvider<PermitMetrics> metrics,
+            ObjectProvider<PermitRedactor> redactor,
+            ObjectProvider<PermitTracer> tracer) {
+        if (properties.getMemo() == PermitProperties.Memo.PRINCIPAL
+                && !(permitConfig instanceof CacheablePermitConfig)) {
+            throw new RuntimeException(MessageFormat
+                    .format("memo为PRINCIPAL时{0}需要实现CacheablePermitConfig",
+                            permitConfig.getClass().getName()));
+        }
+        PermitEvaluator evaluator = new PermitEvaluator(plans, permittables,
+                roots, properties);
+        parallel.ifAvailable(evaluator::setParallel);
+        metrics.ifAvailable(evaluator::setMetrics);
+        redactor.ifAvailable(evaluator::setRedactor);
+        tracer.ifAvailable(evaluator::setTracer);
+        return evaluator;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "data-permit.startup", name = "enabled", havingValue = "true")
+    public PermitStartupValidator permitStartupValidator(
+            BeanFactory beanFactory, PermitPlanRegistry plans,
+            PermittableRegistry permittables, PermitProperties properties) {
+        return new PermitStartupValidator(beanFactory, plans, permittables,
+                properties);
+    }
+
+    @Bean
+    public PermitPredicateBuilder permitPredicateBuilder(
+            PermitPlanRegistry plans, PermittableRegistry permittables,
+            PermitConfig permitConfig, PermitProperties properties) {
+        Integer maxDepth = properties.getPredicate().getMaxDepth();
+        return new PermitPredicateBuilder(plans, permittables, permitConfig,
+                Objects.nonNull(maxDepth) ? maxDepth
+                        : properties.getTraversal().getMaxDepth());
+    }
+}
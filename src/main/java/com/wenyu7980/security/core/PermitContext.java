@@ -0,0 +1,392 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.trace.PermitTrace;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * 一次权限校验的上下文
+ * 记录本次校验中上级资源的校验结果，同一上级资源最多查询和校验一次
+ * 校验中的上级资源记为false，存在环时不会无限递归
+ * 批量校验时多条数据共用一个上下文，每条数据校验结束时调用complete
+ * 每个线程复用一个上下文，结束校验时清空，包括遍历权限节点用的栈和复合key的取值数组
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public final class PermitContext {
+    private static final ThreadLocal<PermitContext> LOCAL = new ThreadLocal<>();
+    /** 已经确定的结果 */
+    private final Map<PermitKey, Boolean> decisions = new HashMap<>();
+    /** 当前数据校验中的结果 */
+    private final Map<PermitKey, Boolean> pending = new HashMap<>();
+    /** 请求内共享的结果，null表示只在本次校验内有效 */
+    private Map<PermitKey, Boolean> shared;
+    /** 是否在校验中 */
+    private boolean active;
+    /** 遍历栈 */
+    private Frame[] frames = new Frame[8];
+    /** 栈中的帧数 */
+    private int size;
+    /** 校验过程，null表示不采样 */
+    private PermitTrace trace;
+    /** 按长度复用的复合key取值数组 */
+    private Object[][] values = new Object[4][];
+    /** 上级资源查询次数 */
+    private int lookups;
+    /** 当前深度 */
+    private int depth;
+    /** 最大深度 */
+    private int maxDepth;
+    /** 当前数据是否有上级资源因超过最大深度而跳过 */
+    private boolean cut;
+
+    private PermitContext() {
+    }
+
+    /**
+     * 当前线程正在进行的校验
+     * @return null表示当前线程没有进行中的校验
+     */
+    public static PermitContext current() {
+        PermitContext context = LOCAL.get();
+        return Objects.nonNull(context) && context.active ? context : null;
+    }
+
+    /**
+     * 在校验中执行，期间PermitMethod不再重复校验
+     * 用于在其他线程中查询上级资源
+     * @param supplier
+     * @param <T>
+     * @return
+     */
+    public static <T> T checking(Supplier<T> supplier) {
+        if (Objects.nonNull(current())) {
+            return supplier.get();
+        }
+        PermitContext context = open(null);
+        try {
+            return supplier.get();
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * 开始校验
+     * @param shared 请求内共享的结果
+     * @return
+     */
+    static PermitContext open(Map<PermitKey, Boolean> shared) {
+        PermitContext context = LOCAL.get();
+        if (Objects.isNull(context)) {
+            context = new PermitContext();
+            LOCAL.set(context);
+        }
+        context.shared = shared;
+        context.active = true;
+        return context;
+    }
+
+    /**
+     * 已知的校验结果
+     * @param key
+     * @return null表示未校验
+     */
+    Boolean decision(PermitKey key) {
+        Boolean decision = this.pending.get(key);
+        if (Objects.isNull(decision)) {
+            decision = this.decisions.get(key);
+        }
+        if (Objects.isNull(decision) && Objects.nonNull(this.shared)) {
+            decision = this.shared.get(key);
+        }
+        return decision;
+    }
+
+    /**
+     * 开始校验上级资源
+     * @param key
+     */
+    void begin(PermitKey key) {
+        this.pending.put(key, Boolean.FALSE);
+    }
+
+    /**
+     * 上级资源校验结束
+     * @param key
+     * @param granted
+     */
+    void end(PermitKey key, boolean granted) {
+        this.pending.put(key, granted);
+    }
+
+    /**
+     * 放弃没有校验完的上级资源
+     * @param key
+     */
+    void forget(PermitKey key) {
+        this.pending.remove(key);
+    }
+
+    /**
+     * 上级资源因超过最大深度而跳过
+     * 环上校验中的上级资源记为false，跳过后依赖它的false也不确定
+     */
+    void cut() {
+        this.cut = true;
+    }
+
+    /**
+     * 记录上级资源查询
+     */
+    void lookup() {
+        this.lookups++;
+    }
+
+    /**
+     * 进入上级资源
+     */
+    void enter() {
+        this.depth++;
+        if (this.depth > this.maxDepth) {
+            this.maxDepth = this.depth;
+        }
+    }
+
+    /**
+     * 到达上级资源的深度，广度优先时用于记录最大深度
+     * @param depth
+     */
+    void reach(int depth) {
+        if (depth > this.maxDepth) {
+            this.maxDepth = depth;
+        }
+    }
+
+    /**
+     * 离开上级资源
+     */
+    void exit() {
+        this.depth--;
+    }
+
+    PermitTrace getTrace() {
+        return trace;
+    }
+
+    void setTrace(PermitTrace trace) {
+        this.trace = trace;
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    int getLookups() {
+        return lookups;
+    }
+
+    int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * 记录已经确定的结果
+     * @param key
+     * @param granted
+     */
+    void record(PermitKey key, boolean granted) {
+        this.decisions.put(key, granted);
+        if (Objects.nonNull(this.shared)) {
+            this.shared.put(key, granted);
+        }
+    }
+
+    /**
+     * 一条数据校验正常结束，结果写入已确定的结果和请求内共享
+     * 校验不通过且没有跳过上级资源时所有的false都是确定的；
+     * 校验通过时false可能是环造成的，跳过上级资源时false可能依赖被跳过的部分，只保留true
+     * @param granted
+     */
+    void complete(boolean granted) {
+        boolean denials = !granted && !this.cut;
+        this.cut = false;
+        if (this.pending.isEmpty()) {
+            return;
+        }
+        for (Map.Entry<PermitKey, Boolean> entry : this.pending.entrySet()) {
+            if (denials || entry.getValue()) {
+                this.record(entry.getKey(), entry.getValue());
+            }
+        }
+        this.pending.clear();
+    }
+
+    /**
+     * 压入遍历帧
+     * @param obj 数据，null表示没有权限节点
+     * @param nodes 数据的权限节点
+     * @param key 上级资源，null表示复杂类型属性或者开始校验的数据
+     * @return
+     */
+    Frame push(Object obj, List<PermitNode> nodes, PermitKey key) {
+        if (this.size == this.frames.length) {
+            this.frames = Arrays.copyOf(this.frames, this.size * 2);
+        }
+        Frame frame = this.frames[this.size];
+        if (Objects.isNull(frame)) {
+            frame = new Frame();
+            this.frames[this.size] = frame;
+        }
+        frame.parent = this.size - 1;
+        frame.step = -1;
+        frame.depth = 0;
+        frame.binding = null;
+        this.size++;
+        frame.obj = obj;
+        frame.nodes = nodes;
+        frame.index = 0;
+        frame.end = nodes.size();
+        frame.key = key;
+        frame.waiting = false;
+        frame.cut = false;
+        return frame;
+    }
+
+    /**
+     * 指定位置的帧，广度优先时栈作为队列使用
+     * @param index
+     * @return
+     */
+    Frame frame(int index) {
+        return this.frames[index];
+    }
+
+    /**
+     * 数据是否是帧或者帧的上层数据，用于复杂类型属性的环
+     * @param index 帧位置
+     * @param base 遍历开始的位置
+     * @param obj
+     * @return
+     */
+    boolean onPath(int index, int base, Object obj) {
+        while (index >= base) {
+            Frame frame = this.frames[index];
+            if (frame.obj == obj) {
+                return true;
+            }
+            index = frame.parent;
+        }
+        return false;
+    }
+
+    /**
+     * 弹出栈顶帧
+     * @return 弹出的帧，再次push前有效
+     */
+    Frame pop() {
+        Frame frame = this.frames[--this.size];
+        frame.obj = null;
+        frame.nodes = null;
+        frame.binding = null;
+        return frame;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 异常时恢复到遍历开始时的栈和深度
+     * @param size
+     * @param depth
+     */
+    void unwind(int size, int depth) {
+        while (this.size > size) {
+            this.pop().key = null;
+        }
+        this.depth = depth;
+    }
+
+    /**
+     * 复合key取值数组，使用后需要clear
+     * @param length
+     * @return
+     */
+    Object[] values(int length) {
+        if (length >= this.values.length) {
+            this.values = Arrays.copyOf(this.values, length + 1);
+        }
+        Object[] values = this.values[length];
+        if (Objects.isNull(values)) {
+            values = new Object[length];
+            this.values[length] = values;
+        }
+        return values;
+    }
+
+    /**
+     * 结束校验
+     */
+    void close() {
+        this.decisions.clear();
+        this.pending.clear();
+        this.shared = null;
+        this.trace = null;
+        this.lookups = 0;
+        this.depth = 0;
+        this.maxDepth = 0;
+        this.cut = false;
+        this.unwind(0, 0);
+        this.active = false;
+    }
+
+    /**
+     * 遍历帧
+     * 一条数据从index开始到end之前的权限节点
+     */
+    static final class Frame {
+        /** 数据 */
+        Object obj;
+        /** 数据的权限节点 */
+        List<PermitNode> nodes;
+        /** 下一个权限节点 */
+        int index;
+        /** 结束位置 */
+        int end;
+        /** 上级资源，null表示复杂类型属性或者开始校验的数据 */
+        PermitKey key;
+        /** 是否等待子帧的结果 */
+        boolean waiting;
+        /** 帧或者下层的上级资源是否因超过最大深度而跳过，不通过时结果不确定 */
+        boolean cut;
+        /** 上层数据的帧位置 */
+        int parent;
+        /** 校验过程中产生该帧的步骤 */
+        int step;
+        /** 广度优先时的上级资源深度 */
+        int depth;
+        /** 广度优先时待查询上级资源的服务类，查询后为null */
+        PermittableBinding binding;
+    }
+}
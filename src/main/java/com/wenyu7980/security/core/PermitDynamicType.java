@@ -10,5 +10,6 @@ public interface PermitDynamicType {
      * 动态关联数据查询服务类
      * @return
      */
+    @SuppressWarnings("rawtypes")
     Class<? extends Permittable> type();
 }
@@ -0,0 +1,913 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.metrics.PermitMetrics;
+import com.wenyu7980.security.trace.PermitTrace;
+import com.wenyu7980.security.trace.PermitTracer;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * 权限校验
+ * 获取类中roots同时校验Superior
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class PermitEvaluator {
+    private static final boolean WEB_PRESENT = ClassUtils
+            .isPresent("org.springframework.web.context.request.RequestContextHolder",
+                    PermitEvaluator.class.getClassLoader());
+    /** 帧通过 */
+    private static final int GRANTED = 1;
+    /** 帧不通过 */
+    private static final int DENIED = 2;
+    /** 压入了子帧 */
+    private static final int PUSHED = 3;
+    /** 类权限计划 */
+    private final PermitPlanRegistry plans;
+    /** 上级资源服务类 */
+    private final PermittableRegistry permittables;
+    /** 根校验 */
+    private final PermitRootDecider roots;
+    private final PermitProperties properties;
+    /** 并行校验，null表示顺序校验 */
+    private PermitParallel parallel;
+    /** 指标 */
+    private PermitMetrics metrics = PermitMetrics.NOOP;
+    /** 脱敏处理 */
+    private PermitRedactor redactor = PermitRedactor.NULLIFY;
+    /** 校验过程采样，null表示不采样 */
+    private PermitTracer tracer;
+
+    public PermitEvaluator(PermitPlanRegistry plans,
+            PermittableRegistry permittables, PermitRootDecider roots,
+            PermitProperties properties) {
+        this.plans = plans;
+        this.permittables = permittables;
+        this.roots = roots;
+        this.properties = properties;
+    }
+
+    public void setParallel(PermitParallel parallel) {
+        this.parallel = parallel;
+    }
+
+    public void setMetrics(PermitMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void setRedactor(PermitRedactor redactor) {
+        this.redactor = redactor;
+    }
+
+    public void setTracer(PermitTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * 校验数据
+     * 当前线程已经在校验中时，沿用当前的校验上下文
+     * @param obj
+     * @return true: 允许访问
+     *         false: 不允许访问
+     */
+    public boolean check(Object obj) {
+        return this.check(obj, null);
+    }
+
+    /**
+     * 校验数据
+     * @param obj
+     * @param method PermitMethod方法，用于指标
+     * @return
+     */
+    public boolean check(Object obj, Method method) {
+        return this.check(obj, method, false);
+    }
+
+    /**
+     * 校验数据并脱敏
+     * 数据本身没有权限时返回false，不做脱敏；
+     * 有权限时逐层校验复杂类型属性，没有权限的属性由PermitRedactor脱敏，
+     * 所有属性在同一个校验上下文中校验，同一上级资源只查询一次；
+     * 当前线程已经在校验中时只校验不脱敏
+     * @param obj
+     * @param method PermitMethod方法，用于指标
+     * @return true: 允许访问，没有权限的属性已脱敏
+     *         false: 不允许访问
+     */
+    public boolean redact(Object obj, Method method) {
+        return this.check(obj, method, true);
+    }
+
+    /**
+     * 按ID校验上级资源
+     * 用于方法执行前按参数校验，只查询上级资源，不需要加载方法返回的数据
+     * @param clazz 上级资源服务类
+     * @param values 构造ID的属性值，多个时为复合key
+     * @param method PermitMethod方法，用于指标
+     * @return true: 允许访问
+     *         false: 不允许访问，存在null值时不允许访问
+     */
+    public boolean checkId(Class<?> clazz, Object[] values,
+            Method method) {
+        for (Object value : values) {
+            if (Objects.isNull(value)) {
+                return false;
+            }
+        }
+        PermittableBinding binding = this.permittables.binding(clazz);
+        Object id = values.length == 1 ?
+                binding.singleId(values[0]) :
+                binding.id(values);
+        PermitContext context = PermitContext.current();
+        if (Objects.nonNull(context)) {
+            return this.checkSuperior(binding, id, context);
+        }
+        PermitTrace trace = Objects.isNull(this.tracer) ?
+                null :
+                this.tracer.start(method, binding.getEntityType());
+        long start = this.metrics.enabled() || Objects.nonNull(trace) ?
+                System.nanoTime() :
+                0L;
+        context = PermitContext.open(this.shared(this.memo()));
+        context.setTrace(trace);
+        try {
+            boolean granted = this.checkSuperior(binding, id, context);
+            context.complete(granted);
+            if (this.metrics.enabled()) {
+                this.metrics.check(method, binding.getEntityType(), granted,
+                        System.nanoTime() - start, context.getLookups(),
+                        context.getMaxDepth());
+            }
+            if (Objects.nonNull(trace)) {
+                this.tracer.finish(trace, granted, System.nanoTime() - start);
+            }
+            return granted;
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * 校验数据
+     * @param obj
+     * @param method
+     * @param redact 是否脱敏
+     * @return
+     */
+    private boolean check(Object obj, Method method, boolean redact) {
+        PermitContext context = PermitContext.current();
+        if (Objects.nonNull(context)) {
+            // 校验中查询的上级资源只用于校验，不脱敏
+            return this.checkPermit(obj, context);
+        }
+        PermitRequestMemo memo = this.memo();
+        if (Objects.nonNull(memo) && !redact && memo.isGranted(obj)) {
+            // 请求内已经通过的数据
+            this.record(method, obj, true, System.nanoTime(), 0, 0);
+            return true;
+        }
+        PermitTrace trace = this.trace(method, obj);
+        long start = this.metrics.enabled() || Objects.nonNull(trace) ?
+                System.nanoTime() :
+                0L;
+        Map<PermitKey, Boolean> shared = this.shared(memo);
+        // 脱敏和采样的校验顺序执行
+        if (Objects.nonNull(this.parallel) && !redact && Objects
+                .isNull(trace)) {
+            Boolean granted = this.checkParallel(obj, shared);
+            if (Objects.nonNull(granted)) {
+                if (granted && Objects.nonNull(memo)) {
+                    memo.grant(obj);
+                }
+                // 并行校验不统计查询次数和深度
+                this.record(method, obj, granted, start,
+                        PermitMetrics.UNKNOWN, PermitMetrics.UNKNOWN);
+                return granted;
+            }
+        }
+        context = PermitContext.open(shared);
+        context.setTrace(trace);
+        try {
+            boolean granted = this.checkPermit(obj, context);
+            context.complete(granted);
+            if (granted && Objects.nonNull(memo)) {
+                memo.grant(obj);
+            }
+            if (granted && redact) {
+                this.redactFields(obj, context, this.visited());
+            }
+            this.record(method, obj, granted, start, context.getLookups(),
+                    context.getMaxDepth());
+            if (Objects.nonNull(trace)) {
+                this.tracer.finish(trace, granted, System.nanoTime() - start);
+            }
+            return granted;
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * 批量校验数据
+     * 所有数据共用一个校验上下文，按层展开上级资源，
+     * 每一层同一服务类的上级资源通过findPermitByIds一次查询
+     * @param objs
+     * @return 与objs顺序一致的校验结果，null数据为true
+     */
+    public boolean[] checkAll(List<?> objs) {
+        return this.checkAll(objs, null);
+    }
+
+    /**
+     * 批量校验数据
+     * @param objs
+     * @param method PermitMethod方法，用于指标
+     * @return
+     */
+    public boolean[] checkAll(List<?> objs, Method method) {
+        return this.checkAll(objs, method, false);
+    }
+
+    /**
+     * 批量校验数据并脱敏
+     * 数据本身按批量校验，有权限的数据在同一个校验上下文中脱敏
+     * @param objs
+     * @param method PermitMethod方法，用于指标
+     * @return 与objs顺序一致的校验结果，null数据为true
+     */
+    public boolean[] redactAll(List<?> objs, Method method) {
+        return this.checkAll(objs, method, true);
+    }
+
+    /**
+     * 批量校验数据
+     * @param objs
+     * @param method
+     * @param redact 是否脱敏
+     * @return
+     */
+    private boolean[] checkAll(List<?> objs, Method method, boolean redact) {
+        PermitContext context = PermitContext.current();
+        if (Objects.nonNull(context)) {
+            return new PermitBatchResolver(this.plans, this.permittables,
+                    this.roots, this.metrics, context,
+                    this.properties.getTraversal().getMaxDepth())
+                    .resolve(objs);
+        }
+        PermitTrace trace = this
+                .trace(method, objs.isEmpty() ? null : objs.get(0));
+        long start = this.metrics.enabled() || Objects.nonNull(trace) ?
+                System.nanoTime() :
+                0L;
+        PermitRequestMemo memo = this.memo();
+        context = PermitContext.open(this.shared(memo));
+        context.setTrace(trace);
+        try {
+            // 请求内已经通过的数据作为null数据，结果为true
+            boolean[] granted = new PermitBatchResolver(this.plans,
+                    this.permittables, this.roots, this.metrics, context,
+                    this.properties.getTraversal().getMaxDepth())
+                    .resolve(Objects.isNull(memo) || redact ?
+                            objs :
+                            memo.unchecked(objs));
+            if (Objects.nonNull(memo)) {
+                memo.grant(objs, granted);
+            }
+            if (redact) {
+                this.redactAll(objs, granted, context);
+            }
+            if (this.metrics.enabled() || Objects.nonNull(trace)) {
+                boolean all = true;
+                for (boolean g : granted) {
+                    all &= g;
+                }
+                this.record(method, objs.isEmpty() ? null : objs.get(0), all,
+                        start, context.getLookups(), context.getMaxDepth());
+                if (Objects.nonNull(trace)) {
+                    this.tracer.finish(trace, all, System.nanoTime() - start);
+                }
+            }
+            return granted;
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * 开始采样
+     * @param method
+     * @param obj
+     * @return null表示不采样
+     */
+    private PermitTrace trace(Method method, Object obj) {
+        if (Objects.isNull(this.tracer)) {
+            return null;
+        }
+        if (obj instanceof Optional) {
+            obj = ((Optional<?>) obj).orElse(null);
+        }
+        return this.tracer
+                .start(method, Objects.isNull(obj) ? null : obj.getClass());
+    }
+
+    /**
+     * 对有权限的数据脱敏
+     * @param objs
+     * @param granted
+     * @param context
+     */
+    private void redactAll(List<?> objs, boolean[] granted,
+            PermitContext context) {
+        Set<Object> visited = this.visited();
+        for (int i = 0; i < granted.length; i++) {
+            if (granted[i]) {
+                this.redactFields(objs.get(i), context, visited);
+            }
+        }
+    }
+
+    /**
+     * 已经脱敏的数据，数据之间存在循环引用时只处理一次
+     * @return
+     */
+    private Set<Object> visited() {
+        return Collections.newSetFromMap(new IdentityHashMap<>());
+    }
+
+    /**
+     * 校验数据的复杂类型属性，没有权限的属性脱敏，有权限的属性继续向下处理
+     * @param obj 有权限的数据
+     * @param context
+     * @param visited
+     */
+    private void redactFields(Object obj, PermitContext context,
+            Set<Object> visited) {
+        if (obj instanceof Optional) {
+            obj = ((Optional<?>) obj).orElse(null);
+        }
+        if (Objects.isNull(obj) || !visited.add(obj)) {
+            return;
+        }
+        for (PermitNode node : this.plans.plan(obj.getClass()).getNodes()) {
+            if (!node.isRedactable()) {
+                continue;
+            }
+            Object value = node.value(obj);
+            if (Objects.isNull(value)) {
+                continue;
+            }
+            boolean granted = this.checkPermit(value, context);
+            context.complete(granted);
+            if (granted) {
+                this.redactFields(value, context, visited);
+            } else {
+                this.write(obj, node,
+                        this.redactor.redact(obj, node.getField(), value));
+            }
+        }
+    }
+
+    /**
+     * 脱敏值写回属性
+     * @param obj
+     * @param node 可以脱敏的权限节点
+     * @param value
+     */
+    private void write(Object obj, PermitNode node, Object value) {
+        try {
+            node.write(obj, value);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new RuntimeException(MessageFormat
+                    .format("{0}.{1}脱敏失败", obj.getClass().getName(),
+                            node.getName()), e);
+        }
+    }
+
+    /**
+     * 记录校验指标
+     * @param method
+     * @param obj
+     * @param granted
+     * @param start
+     * @param lookups
+     * @param depth
+     */
+    private void record(Method method, Object obj, boolean granted,
+            long start, int lookups, int depth) {
+        if (this.metrics.enabled()) {
+            if (obj instanceof Optional) {
+                obj = ((Optional<?>) obj).orElse(null);
+            }
+            this.metrics.check(method,
+                    Objects.isNull(obj) ? null : obj.getClass(), granted,
+                    System.nanoTime() - start, lookups, depth);
+        }
+    }
+
+    /**
+     * 并行校验数据的各个权限节点
+     * 每个节点在独立的校验上下文中执行
+     * @param obj
+     * @param shared
+     * @return null表示节点少于两个或者超时，需要顺序校验
+     */
+    private Boolean checkParallel(Object obj, Map<PermitKey, Boolean> shared) {
+        if (obj instanceof Optional) {
+            obj = ((Optional<?>) obj).orElse(null);
+        }
+        if (Objects.isNull(obj)) {
+            return null;
+        }
+        Object data = obj;
+        List<PermitNode> nodes = this.plans.plan(data.getClass()).getNodes();
+        List<Callable<Boolean>> tasks = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            if (Objects.isNull(nodes.get(i).values(data))) {
+                continue;
+            }
+            int index = i;
+            tasks.add(() -> {
+                PermitContext context = PermitContext.open(shared);
+                try {
+                    boolean granted = this
+                            .traverse(data, index, index + 1, context);
+                    context.complete(granted);
+                    return granted;
+                } finally {
+                    context.close();
+                }
+            });
+        }
+        if (tasks.size() < 2) {
+            return null;
+        }
+        return this.parallel.any(tasks);
+    }
+
+    /**
+     * 请求内当前用户的校验结果
+     * @return memo不是PRINCIPAL、不在请求中或者用户为null时返回null
+     */
+    private PermitRequestMemo memo() {
+        if (!WEB_PRESENT || this.properties.getMemo()
+                != PermitProperties.Memo.PRINCIPAL) {
+            return null;
+        }
+        Object principal = this.roots.principal();
+        return Objects.isNull(principal) ?
+                null :
+                PermitRequestScope.memo(principal);
+    }
+
+    /**
+     * 请求内共享的校验结果
+     * @param memo 请求内当前用户的校验结果
+     * @return
+     */
+    private Map<PermitKey, Boolean> shared(PermitRequestMemo memo) {
+        if (Objects.nonNull(memo)) {
+            return memo.decisions();
+        }
+        if (WEB_PRESENT && this.properties.getMemo()
+                == PermitProperties.Memo.REQUEST) {
+            return PermitRequestScope.decisions();
+        }
+        return null;
+    }
+
+    /**
+     * 获取类中roots同时校验Superior
+     * @param obj
+     * @param context
+     * @return true: 允许访问
+     *         false: 不允许访问
+     */
+    private boolean checkPermit(Object obj, PermitContext context) {
+        return this.traverse(obj, 0, Integer.MAX_VALUE, context);
+    }
+
+    /**
+     * 遍历权限节点
+     * 复杂类型属性和上级资源压入校验上下文中复用的栈，不使用递归；
+     * 同一上级资源按服务类和ID只查询一次，复杂类型属性的数据出现环时跳过，
+     * 超过最大深度的上级资源视为不通过；
+     * 因此不通过的上级资源不记录结果，其他路径以更小的深度到达时重新校验
+     * @param obj 数据，可以是Optional
+     * @param from 开始校验的权限节点
+     * @param to 结束位置(不包含)
+     * @param context
+     * @return
+     */
+    private boolean traverse(Object obj, int from, int to,
+            PermitContext context) {
+        PermitContext.Frame start = this.push(obj, null, context);
+        start.index = from;
+        start.end = Math.min(to, start.end);
+        return this.walk(context.size() - 1, context);
+    }
+
+    /**
+     * 从已经压入的开始帧遍历
+     * @param base 开始帧的位置
+     * @param context
+     * @return
+     */
+    private boolean walk(int base, PermitContext context) {
+        int depth = context.getDepth();
+        boolean completed = false;
+        try {
+            boolean granted = this.properties.getTraversal().getOrder()
+                    == PermitProperties.Traversal.Order.BREADTH_FIRST ?
+                    this.breadthFirst(base, context) :
+                    this.depthFirst(base, context);
+            completed = true;
+            return granted;
+        } finally {
+            if (!completed) {
+                context.unwind(base, depth);
+            }
+        }
+    }
+
+    /**
+     * 校验上级资源，上级资源作为开始帧
+     * @param binding
+     * @param id
+     * @param context
+     * @return
+     */
+    private boolean checkSuperior(PermittableBinding binding, Object id,
+            PermitContext context) {
+        PermitKey key = new PermitKey(binding.getType(), id);
+        Boolean decision = context.decision(key);
+        if (Objects.nonNull(decision)) {
+            return decision;
+        }
+        context.begin(key);
+        PermitContext.Frame start = context
+                .push(null, Collections.emptyList(), key);
+        start.binding = binding;
+        start.depth = 1;
+        return this.walk(context.size() - 1, context);
+    }
+
+    /**
+     * 深度优先
+     * 权限节点按顺序逐个展开，找到第一条通过的路径即结束，后面的节点不再读取
+     * @param base 开始帧的位置
+     * @param context
+     * @return
+     */
+    private boolean depthFirst(int base, PermitContext context) {
+        boolean granted = false;
+        while (context.size() > base) {
+            int head = context.size() - 1;
+            PermitContext.Frame frame = context.frame(head);
+            if (Objects.nonNull(frame.binding)) {
+                this.load(frame, false, context);
+            }
+            if (frame.waiting) {
+                frame.waiting = false;
+                if (granted) {
+                    this.finish(true, context);
+                    continue;
+                }
+            }
+            int state = this.advance(frame, head, base, false, context);
+            if (state != PUSHED) {
+                granted = state == GRANTED;
+                this.finish(granted, context);
+            }
+        }
+        return granted;
+    }
+
+    /**
+     * 广度优先
+     * 栈作为队列使用，一层的根校验都不通过时才查询下一层的上级资源
+     * @param base 开始帧的位置
+     * @param context
+     * @return
+     */
+    private boolean breadthFirst(int base, PermitContext context) {
+        try {
+            for (int head = base; head < context.size(); head++) {
+                PermitContext.Frame frame = context.frame(head);
+                if (Objects.nonNull(frame.binding)) {
+                    this.load(frame, true, context);
+                }
+                if (this.advance(frame, head, base, true, context)
+                        == GRANTED) {
+                    this.grant(head, base, context);
+                    return true;
+                }
+            }
+            for (int head = base; head < context.size(); head++) {
+                PermitContext.Frame frame = context.frame(head);
+                if (frame.cut && Objects.nonNull(frame.key)) {
+                    context.forget(frame.key);
+                }
+            }
+            return false;
+        } finally {
+            context.unwind(base, context.getDepth());
+        }
+    }
+
+    /**
+     * 广度优先通过
+     * 通过路径上的上级资源记为通过，其他上级资源没有校验完，不记录结果
+     * @param head 通过的帧
+     * @param base
+     * @param context
+     */
+    private void grant(int head, int base, PermitContext context) {
+        for (int i = base; i < context.size(); i++) {
+            PermitContext.Frame frame = context.frame(i);
+            if (Objects.nonNull(frame.key)) {
+                context.forget(frame.key);
+            }
+        }
+        for (int i = head; i >= base; i = context.frame(i).parent) {
+            PermitContext.Frame frame = context.frame(i);
+            if (Objects.nonNull(frame.key)) {
+                context.end(frame.key, true);
+            }
+        }
+    }
+
+    /**
+     * 继续校验帧中的权限节点
+     * 深度优先时压入子帧即返回，广度优先时子帧加入队列后继续
+     * @param frame
+     * @param head 帧的位置
+     * @param base 开始帧的位置
+     * @param breadth 是否广度优先
+     * @param context
+     * @return
+     */
+    private int advance(PermitContext.Frame frame, int head, int base,
+            boolean breadth, PermitContext context) {
+        PermitTrace trace = context.getTrace();
+        while (frame.index < frame.end) {
+            PermitNode node = frame.nodes.get(frame.index++);
+            Object[] values = null;
+            Object value;
+            if (node.isComposite()) {
+                values = context.values(node.length());
+                if (!node.values(frame.obj, values)) {
+                    Arrays.fill(values, null);
+                    continue;
+                }
+                value = values[0];
+            } else {
+                value = node.value(frame.obj);
+                if (Objects.isNull(value)) {
+                    continue;
+                }
+            }
+            int step = Objects.isNull(trace) ?
+                    -1 :
+                    trace.node(frame.step,
+                            frame.obj.getClass().getSimpleName() + "." + node
+                                    .getName());
+            // root
+            if (node.getPermit().root() && this
+                    .root(value, node.getPermit(), trace, step)) {
+                this.clear(values);
+                return GRANTED;
+            }
+            Class<?> clazz = node.type(frame.obj);
+            if (Objects.isNull(clazz)) {
+                // 复杂类型
+                this.clear(values);
+                PermitContext.Frame child = this.push(value, null, context);
+                if (context.onPath(head, base, child.obj)) {
+                    context.pop();
+                    continue;
+                }
+                child.parent = head;
+                child.step = step;
+                child.depth = frame.depth;
+                if (breadth) {
+                    continue;
+                }
+                frame.waiting = true;
+                return PUSHED;
+            }
+            // 非复杂类型，同一上级资源在一次校验中最多查询一次
+            PermittableBinding binding = this.permittables.binding(clazz);
+            PermitKey key;
+            try {
+                key = new PermitKey(binding.getType(),
+                        Objects.isNull(values) ?
+                                binding.singleId(value) :
+                                binding.id(values));
+            } finally {
+                this.clear(values);
+            }
+            Boolean decision = context.decision(key);
+            if (Objects.nonNull(decision)) {
+                if (Objects.nonNull(trace)) {
+                    trace.memo(step, key, decision);
+                }
+                if (decision) {
+                    return GRANTED;
+                }
+                continue;
+            }
+            if (frame.depth >= this.properties.getTraversal().getMaxDepth()) {
+                if (Objects.nonNull(trace)) {
+                    trace.cut(step, key);
+                }
+                this.cut(head, base, context);
+                continue;
+            }
+            context.begin(key);
+            // 已加载的上级资源在load时直接使用，不再查询
+            PermitContext.Frame child = context
+                    .push(node.superior(frame.obj, key.getId()),
+                            Collections.emptyList(), key);
+            child.binding = binding;
+            child.parent = head;
+            child.step = step;
+            child.depth = frame.depth + 1;
+            if (breadth) {
+                continue;
+            }
+            frame.waiting = true;
+            return PUSHED;
+        }
+        return DENIED;
+    }
+
+    /**
+     * 根校验，采样时记录耗时和结果
+     * @param value
+     * @param permit
+     * @param trace
+     * @param step
+     * @return
+     */
+    private boolean root(Object value, Permit permit, PermitTrace trace,
+            int step) {
+        if (Objects.isNull(trace)) {
+            return this.roots.check(value, permit);
+        }
+        long start = System.nanoTime();
+        boolean granted = this.roots.check(value, permit);
+        trace.root(step, permit, value, granted, System.nanoTime() - start);
+        return granted;
+    }
+
+    /**
+     * 加载帧的上级资源
+     * 帧中已有association属性的上级资源时直接使用，否则查询
+     * @param frame
+     * @param breadth
+     * @param context
+     */
+    private void load(PermitContext.Frame frame, boolean breadth,
+            PermitContext context) {
+        PermittableBinding binding = frame.binding;
+        frame.binding = null;
+        if (breadth) {
+            context.reach(frame.depth);
+        } else {
+            context.enter();
+        }
+        Object superior = Objects.isNull(frame.obj) ?
+                this.find(frame, binding, context) :
+                frame.obj;
+        if (Objects.nonNull(superior)) {
+            frame.obj = superior;
+            frame.nodes = this.plans.plan(superior.getClass()).getNodes();
+            frame.index = 0;
+            frame.end = frame.nodes.size();
+        }
+    }
+
+    /**
+     * 查询帧的上级资源
+     * @param frame
+     * @param binding
+     * @param context
+     * @return 不存在时返回null
+     */
+    private Object find(PermitContext.Frame frame, PermittableBinding binding,
+            PermitContext context) {
+        context.lookup();
+        PermitTrace trace = context.getTrace();
+        Object superior;
+        if (this.metrics.enabled() || Objects.nonNull(trace)) {
+            long start = System.nanoTime();
+            superior = binding.find(frame.key.getId());
+            long nanos = System.nanoTime() - start;
+            if (this.metrics.enabled()) {
+                this.metrics.lookup(binding.getType(), nanos);
+            }
+            if (superior instanceof Optional) {
+                superior = ((Optional<?>) superior).orElse(null);
+            }
+            if (Objects.nonNull(trace)) {
+                frame.step = trace.lookup(frame.step, frame.key.toString(),
+                        Objects.nonNull(superior), nanos);
+            }
+        } else {
+            superior = binding.find(frame.key.getId());
+        }
+        if (superior instanceof Optional) {
+            superior = ((Optional<?>) superior).orElse(null);
+        }
+        return superior;
+    }
+
+    /**
+     * 压入数据的帧
+     * @param obj 数据，可以是Optional
+     * @param key 上级资源
+     * @param context
+     * @return
+     */
+    private PermitContext.Frame push(Object obj, PermitKey key,
+            PermitContext context) {
+        if (obj instanceof Optional) {
+            obj = ((Optional<?>) obj).orElse(null);
+        }
+        return context.push(obj, Objects.isNull(obj) ?
+                Collections.emptyList() :
+                this.plans.plan(obj.getClass()).getNodes(), key);
+    }
+
+    /**
+     * 超过最大深度跳过上级资源，帧和路径上的帧都标记为跳过，
+     * 当前数据的false都不再写入已确定的结果
+     * @param head 跳过上级资源的帧
+     * @param base 开始帧的位置
+     * @param context
+     */
+    private void cut(int head, int base, PermitContext context) {
+        context.cut();
+        for (int i = head; i >= base; i = context.frame(i).parent) {
+            PermitContext.Frame frame = context.frame(i);
+            if (frame.cut) {
+                return;
+            }
+            frame.cut = true;
+        }
+    }
+
+    /**
+     * 深度优先时栈顶帧结束，上级资源记录结果
+     * 下层因超过最大深度跳过时不通过的结果不确定，不记录
+     * @param granted
+     * @param context
+     */
+    private void finish(boolean granted, PermitContext context) {
+        PermitContext.Frame frame = context.pop();
+        if (Objects.nonNull(frame.key)) {
+            if (granted || !frame.cut) {
+                context.end(frame.key, granted);
+            } else {
+                context.forget(frame.key);
+            }
+            context.exit();
+            frame.key = null;
+        }
+    }
+
+    private void clear(Object[] values) {
+        if (Objects.nonNull(values)) {
+            Arrays.fill(values, null);
+        }
+    }
+}
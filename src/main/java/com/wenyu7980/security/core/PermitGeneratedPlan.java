@@ -0,0 +1,49 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.accessor.PermitAccessor;
+
+/**
+ * 编译期生成的权限计划
+ * 由{@link com.wenyu7980.security.processor.PermitProcessor}为每个带Permit注解的类生成，
+ * 通过ServiceLoader加载，存在时优先于运行时反射
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public interface PermitGeneratedPlan {
+    /**
+     * 数据类型
+     * @return
+     */
+    Class<?> type();
+
+    /**
+     * 属性读取器
+     * @param name 属性名
+     * @return 未生成时返回null
+     */
+    PermitAccessor accessor(String name);
+
+    /**
+     * 查询ID构造
+     * 按构造函数的参数类型区分，同一参数个数的多个构造函数各自生成
+     * @param idType ID类型
+     * @param parameterTypes 构造函数的参数类型
+     * @return 未生成时返回null
+     */
+    PermitIdFactory id(Class<?> idType, Class<?>[] parameterTypes);
+}
@@ -0,0 +1,88 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.accessor.PermitAccessor;
+
+import java.util.*;
+
+/**
+ * 通过ServiceLoader加载的编译期生成的权限计划
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+final class PermitGeneratedPlans {
+    /** 没有生成的权限计划 */
+    static final PermitGeneratedPlans EMPTY = new PermitGeneratedPlans(
+            Collections.emptyMap());
+    /** 数据类型 -> 权限计划 */
+    private final Map<Class<?>, PermitGeneratedPlan> plans;
+
+    private PermitGeneratedPlans(Map<Class<?>, PermitGeneratedPlan> plans) {
+        this.plans = plans;
+    }
+
+    /**
+     * 加载生成的权限计划，类已经不存在的项忽略
+     * @param loader
+     * @return
+     */
+    static PermitGeneratedPlans load(ClassLoader loader) {
+        Map<Class<?>, PermitGeneratedPlan> plans = new HashMap<>();
+        Iterator<PermitGeneratedPlan> iterator = ServiceLoader
+                .load(PermitGeneratedPlan.class, loader).iterator();
+        while (true) {
+            try {
+                if (!iterator.hasNext()) {
+                    break;
+                }
+                PermitGeneratedPlan plan = iterator.next();
+                plans.put(plan.type(), plan);
+            } catch (ServiceConfigurationError e) {
+                // 过期的生成类
+            }
+        }
+        return plans.isEmpty() ? EMPTY : new PermitGeneratedPlans(plans);
+    }
+
+    /**
+     * 生成的属性读取器
+     * @param type
+     * @param name
+     * @return 不存在时返回null
+     */
+    PermitAccessor accessor(Class<?> type, String name) {
+        PermitGeneratedPlan plan = this.plans.get(type);
+        return Objects.isNull(plan) ? null : plan.accessor(name);
+    }
+
+    /**
+     * 生成的查询ID构造
+     * 各数据类型的权限计划生成的同一构造函数的构造是等价的
+     * @param idType
+     * @param parameterTypes 构造函数的参数类型
+     * @return 不存在时返回null
+     */
+    PermitIdFactory id(Class<?> idType, Class<?>[] parameterTypes) {
+        for (PermitGeneratedPlan plan : this.plans.values()) {
+            PermitIdFactory factory = plan.id(idType, parameterTypes);
+            if (Objects.nonNull(factory)) {
+                return factory;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,376 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskDecorator;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 上级资源查询保护
+ * 每个关联数据查询服务类独立的并发限制(舱壁)、超时和熔断，
+ * 拒绝时按配置立即抛出PermitConfig#exception或者视为上级资源不存在
+ * 设定超时的查询在独立线程中执行，超时后线程仍然占用并发数直到查询返回，
+ * PermitConfig和服务类依赖的线程变量需要通过TaskDecorator传递
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class PermitGuard implements DisposableBean {
+    private final PermitProperties.Guard properties;
+    private final PermitConfig permitConfig;
+    private final TaskDecorator decorator;
+    /** 服务类 -> 保护状态 */
+    private final ConcurrentMap<Class<?>, Slot> slots = new ConcurrentHashMap<>();
+    /** 超时查询的线程池，存在超时设定时创建 */
+    private volatile ExecutorService executor;
+
+    /**
+     * @param properties
+     * @param permitConfig
+     * @param decorator 超时查询的任务装饰，提交时装饰，可以为null
+     */
+    public PermitGuard(PermitProperties.Guard properties,
+            PermitConfig permitConfig, TaskDecorator decorator) {
+        this.properties = properties;
+        this.permitConfig = permitConfig;
+        this.decorator = decorator;
+    }
+
+    /**
+     * 在保护下查询
+     * @param type 关联数据查询服务类
+     * @param lookup 查询
+     * @param fallback 拒绝且failure为DENY时的返回值
+     * @param <T>
+     * @return
+     */
+    public <T> T call(Class<?> type, Supplier<T> lookup, T fallback) {
+        Slot slot = this.slots.get(type);
+        if (Objects.isNull(slot)) {
+            slot = this.slots.computeIfAbsent(type, this::slot);
+        }
+        if (!slot.allow()) {
+            return this.reject(type, "熔断中", fallback);
+        }
+        if (!slot.acquire()) {
+            slot.skip();
+            return this.reject(type, "并发查询数已满", fallback);
+        }
+        if (slot.timeout <= 0L) {
+            boolean failed = true;
+            try {
+                T result = lookup.get();
+                failed = false;
+                return result;
+            } finally {
+                slot.free();
+                slot.record(failed);
+            }
+        }
+        return this.timed(type, slot, lookup, fallback);
+    }
+
+    /**
+     * 在独立线程中查询，超时时取消并记录失败
+     * 并发数在查询线程结束时释放，没有返回的查询一直占用并发数；
+     * 取消时查询还没有开始则由取消的一方释放，查询不再执行
+     * @param type
+     * @param slot
+     * @param lookup
+     * @param fallback
+     * @param <T>
+     * @return
+     */
+    private <T> T timed(Class<?> type, Slot slot,
+            Supplier<T> lookup, T fallback) {
+        Hold hold = new Hold(slot);
+        FutureTask<T> future = new FutureTask<>(() -> {
+            if (!hold.start()) {
+                return null;
+            }
+            try {
+                return PermitContext.checking(lookup);
+            } finally {
+                hold.end();
+            }
+        });
+        try {
+            this.executor().execute(Objects.isNull(this.decorator) ?
+                    future :
+                    this.decorator.decorate(future));
+        } catch (RejectedExecutionException e) {
+            hold.cancel();
+            slot.skip();
+            return this.reject(type, "查询线程不可用", fallback);
+        }
+        try {
+            T result = future.get(slot.timeout, TimeUnit.NANOSECONDS);
+            slot.record(false);
+            return result;
+        } catch (TimeoutException e) {
+            if (future.cancel(true)) {
+                hold.cancel();
+            }
+            slot.record(true);
+            return this.reject(type, "查询超时", fallback);
+        } catch (ExecutionException e) {
+            slot.record(true);
+            throw e.getCause() instanceof RuntimeException ?
+                    (RuntimeException) e.getCause() :
+                    new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            if (future.cancel(true)) {
+                hold.cancel();
+            }
+            slot.skip();
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("权限校验被中断", e);
+        }
+    }
+
+    private <T> T reject(Class<?> type, String reason,
+            T fallback) {
+        if (this.properties.getFailure()
+                == PermitProperties.Guard.Failure.DENY) {
+            return fallback;
+        }
+        throw this.permitConfig.exception(MessageFormat
+                .format("{0}{1}", type.getSimpleName(), reason));
+    }
+
+    /**
+     * 服务类的限制，types中类名优先于简单类名，未设定的使用默认值
+     * @param type
+     * @return
+     */
+    private Slot slot(Class<?> type) {
+        PermitProperties.Limit limit = this.properties.getTypes()
+                .get(type.getName());
+        if (Objects.isNull(limit)) {
+            limit = this.properties.getTypes().get(type.getSimpleName());
+        }
+        if (Objects.isNull(limit)) {
+            limit = this.properties;
+        }
+        PermitProperties.Guard defaults = this.properties;
+        return new Slot(this.count(limit.getMaxConcurrent(),
+                defaults.getMaxConcurrent()),
+                this.nanos(this.or(limit.getMaxWait(), defaults.getMaxWait())),
+                this.nanos(this.or(limit.getTimeout(), defaults.getTimeout())),
+                this.count(limit.getFailureThreshold(),
+                        defaults.getFailureThreshold()),
+                this.nanos(this.or(limit.getOpenDuration(),
+                        defaults.getOpenDuration())));
+    }
+
+    private <T> T or(T value, T defaults) {
+        return Objects.nonNull(value) ? value : defaults;
+    }
+
+    /**
+     * 次数限制，配置为空时为0
+     * @param value
+     * @param defaults
+     * @return
+     */
+    private int count(Integer value, Integer defaults) {
+        Integer count = this.or(value, defaults);
+        return Objects.isNull(count) ? 0 : count;
+    }
+
+    private long nanos(Duration duration) {
+        return Objects.isNull(duration) ? 0L : duration.toNanos();
+    }
+
+    private ExecutorService executor() {
+        ExecutorService executor = this.executor;
+        if (Objects.isNull(executor)) {
+            synchronized (this) {
+                if (Objects.isNull(this.executor)) {
+                    AtomicInteger count = new AtomicInteger();
+                    // 线程数由各服务类的并发数限制
+                    this.executor = new ThreadPoolExecutor(0,
+                            Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+                            new SynchronousQueue<>(), task -> {
+                        Thread thread = new Thread(task,
+                                "permit-guard-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                executor = this.executor;
+            }
+        }
+        return executor;
+    }
+
+    @Override
+    public void destroy() {
+        if (Objects.nonNull(this.executor)) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 超时查询占用的并发数
+     * 查询线程和取消的一方只有一方释放，取消后查询不再开始
+     */
+    private static final class Hold {
+        private static final int NEW = 0;
+        private static final int RUNNING = 1;
+        private static final int RELEASED = 2;
+        private final Slot slot;
+        private final AtomicInteger state = new AtomicInteger(NEW);
+
+        private Hold(Slot slot) {
+            this.slot = slot;
+        }
+
+        /**
+         * 查询开始
+         * @return false表示已经取消并释放
+         */
+        private boolean start() {
+            return this.state.compareAndSet(NEW, RUNNING);
+        }
+
+        /**
+         * 查询结束，释放并发数
+         */
+        private void end() {
+            this.state.set(RELEASED);
+            this.slot.free();
+        }
+
+        /**
+         * 取消，查询还没有开始时释放并发数
+         */
+        private void cancel() {
+            if (this.state.compareAndSet(NEW, RELEASED)) {
+                this.slot.free();
+            }
+        }
+    }
+
+    /**
+     * 一个服务类的并发数和熔断状态
+     */
+    private static final class Slot {
+        /** null表示不限制并发 */
+        private final Semaphore permits;
+        private final long maxWait;
+        private final long timeout;
+        private final int threshold;
+        private final long open;
+        /** 连续失败次数 */
+        private final AtomicInteger failures = new AtomicInteger();
+        /** 熔断结束时间，0表示未熔断 */
+        private volatile long openUntil;
+        /** 熔断结束后是否有试探查询在进行 */
+        private final AtomicBoolean probing = new AtomicBoolean();
+
+        private Slot(int maxConcurrent, long maxWait, long timeout,
+                int threshold, long open) {
+            this.permits = maxConcurrent > 0 ?
+                    new Semaphore(maxConcurrent) :
+                    null;
+            this.maxWait = maxWait;
+            this.timeout = timeout;
+            this.threshold = threshold;
+            this.open = open;
+        }
+
+        /**
+         * 熔断判断，熔断结束后只放行一次试探查询
+         * @return
+         */
+        private boolean allow() {
+            long until = this.openUntil;
+            if (until == 0L) {
+                return true;
+            }
+            if (System.nanoTime() - until < 0L) {
+                return false;
+            }
+            return this.probing.compareAndSet(false, true);
+        }
+
+        private boolean acquire() {
+            if (Objects.isNull(this.permits)) {
+                return true;
+            }
+            if (this.maxWait <= 0L) {
+                return this.permits.tryAcquire();
+            }
+            try {
+                return this.permits.tryAcquire(this.maxWait,
+                        TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        /**
+         * 释放并发数
+         */
+        private void free() {
+            if (Objects.nonNull(this.permits)) {
+                this.permits.release();
+            }
+        }
+
+        /**
+         * 查询没有执行，只结束试探，不计入失败
+         */
+        private void skip() {
+            this.probing.set(false);
+        }
+
+        /**
+         * 记录查询结果
+         * 成功时恢复；试探失败时重新熔断；连续失败达到阈值时熔断
+         * @param failed 异常或者超时
+         */
+        private void record(boolean failed) {
+            if (!failed) {
+                if (this.failures.get() != 0) {
+                    this.failures.set(0);
+                }
+                if (this.openUntil != 0L) {
+                    this.openUntil = 0L;
+                    this.probing.set(false);
+                }
+                return;
+            }
+            if (this.threshold <= 0) {
+                return;
+            }
+            if (this.probing.compareAndSet(true, false) || this.failures
+                    .incrementAndGet() >= this.threshold) {
+                this.failures.set(0);
+                this.openUntil = System.nanoTime() + this.open;
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * 查询ID构造
+ * 由Permit属性值或者Permits中names对应的属性值构造findPermitById的参数
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+@FunctionalInterface
+public interface PermitIdFactory {
+    /**
+     * 构造查询ID
+     * @param values 属性值，数组在校验中复用，不能持有
+     * @return
+     */
+    Object create(Object[] values);
+}
@@ -0,0 +1,66 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.Objects;
+
+/**
+ * 上级资源标识
+ * 关联数据查询服务类和查询ID
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public final class PermitKey {
+    private final Class<?> type;
+    private final Object id;
+    private final int hash;
+
+    public PermitKey(Class<?> type, Object id) {
+        this.type = type;
+        this.id = id;
+        this.hash = 31 * type.hashCode() + Objects.hashCode(id);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Object getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof PermitKey)) {
+            return false;
+        }
+        PermitKey that = (PermitKey) o;
+        return this.type == that.type && Objects.equals(this.id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+
+    @Override
+    public String toString() {
+        return this.type.getSimpleName() + "(" + this.id + ")";
+    }
+}
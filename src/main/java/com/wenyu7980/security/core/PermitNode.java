@@ -0,0 +1,193 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.accessor.PermitAccessor;
+import com.wenyu7980.security.annotation.Permit;
+
+import java.lang.reflect.Field;
+import java.util.Objects;
+
+/**
+ * 权限计划节点
+ * 对应属性上的Permit或者Permits中的一个Permit
+ * 构建时完成属性查找和读取器创建，校验时只读取属性值
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public final class PermitNode {
+    /** 注解 */
+    private final Permit permit;
+    /** 取值属性，属性注解时长度为1，Permits注解时与names一致 */
+    private final PermitAccessor[] fields;
+    /** 动态关联属性 */
+    private final PermitAccessor dynamic;
+    /** 已加载的上级资源属性 */
+    private final PermitAccessor association;
+    /** 关联数据查询服务类，null表示复杂类型或者动态关联 */
+    private final Class<?> clazz;
+    /** 属性注解时的属性，可以脱敏时构建时完成访问检查，Permits注解时为null */
+    private final Field field;
+
+    PermitNode(Permit permit, PermitAccessor[] fields,
+            PermitAccessor dynamic, PermitAccessor association, Field field) {
+        this.permit = permit;
+        this.fields = fields;
+        this.dynamic = dynamic;
+        this.association = association;
+        this.field = field;
+        this.clazz = Objects.nonNull(dynamic) || Permittable.class
+                .equals(permit.clazz()) ? null : permit.clazz();
+        if (this.isRedactable()) {
+            field.setAccessible(true);
+        }
+    }
+
+    public Permit getPermit() {
+        return permit;
+    }
+
+    /**
+     * 是否是Permits上的复合key
+     * @return
+     */
+    public boolean isComposite() {
+        return this.permit.names().length > 0;
+    }
+
+    /**
+     * 是否是动态关联
+     * @return
+     */
+    public boolean isDynamic() {
+        return Objects.nonNull(this.dynamic);
+    }
+
+    /**
+     * 是否是可以脱敏的复杂类型属性
+     * 根资源属性由PermitConfig判断，不是复杂类型属性
+     * @return
+     */
+    public boolean isRedactable() {
+        return Objects.nonNull(this.field) && !this.permit.root() && Objects
+                .isNull(this.clazz) && Objects.isNull(this.dynamic);
+    }
+
+    /**
+     * 脱敏值写回属性
+     * @param obj
+     * @param value
+     * @throws IllegalAccessException
+     */
+    public void write(Object obj, Object value) throws IllegalAccessException {
+        this.field.set(obj, value);
+    }
+
+    /**
+     * 属性注解时的属性
+     * @return Permits注解时为null
+     */
+    public Field getField() {
+        return field;
+    }
+
+    /**
+     * 属性名，Permits注解时为names
+     * @return
+     */
+    public String getName() {
+        return Objects.nonNull(this.field) ?
+                this.field.getName() :
+                String.join("+", this.permit.names());
+    }
+
+    /**
+     * 取值属性个数
+     * @return
+     */
+    public int length() {
+        return this.fields.length;
+    }
+
+    /**
+     * 读取第一个属性值，属性注解时即为属性值
+     * @param obj
+     * @return
+     */
+    public Object value(Object obj) {
+        return this.fields[0].get(obj);
+    }
+
+    /**
+     * 读取属性值到values中
+     * @param obj
+     * @param values 长度不小于属性个数
+     * @return 存在null值时返回false
+     */
+    public boolean values(Object obj, Object[] values) {
+        for (int i = 0; i < this.fields.length; i++) {
+            values[i] = this.fields[i].get(obj);
+            if (Objects.isNull(values[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 读取属性值
+     * @param obj
+     * @return 存在null值时返回null
+     */
+    public Object[] values(Object obj) {
+        Object[] values = new Object[this.fields.length];
+        for (int i = 0; i < this.fields.length; i++) {
+            values[i] = this.fields[i].get(obj);
+            if (Objects.isNull(values[i])) {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 已加载的上级资源
+     * 校验结果按查询ID记录，association的ID与查询ID不一致时不能使用
+     * @param obj
+     * @param id 上级资源的查询ID
+     * @return 没有设定association、属性为null、未加载或者ID与查询ID不一致时返回null
+     */
+    public Object superior(Object obj, Object id) {
+        if (Objects.isNull(this.association)) {
+            return null;
+        }
+        Object superior = this.association.get(obj);
+        return PermitAssociations.loaded(superior) && PermitAssociations
+                .identified(superior, id) ? superior : null;
+    }
+
+    /**
+     * 关联数据查询服务类
+     * @param obj
+     * @return null表示复杂类型
+     */
+    public Class<?> type(Object obj) {
+        if (Objects.isNull(this.dynamic)) {
+            return this.clazz;
+        }
+        return ((PermitDynamicType) this.dynamic.get(obj)).type();
+    }
+}
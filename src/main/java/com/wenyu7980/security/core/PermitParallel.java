@@ -0,0 +1,128 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskDecorator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并行校验
+ * 数据的多个权限节点相互独立时并行校验，任意一个通过即返回并取消其他
+ * 任务在其他线程执行，PermitConfig依赖的线程变量(如当前用户)需要通过TaskDecorator传递
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class PermitParallel implements DisposableBean {
+    private final Executor executor;
+    /** 自行创建的线程池，销毁时关闭 */
+    private final ExecutorService owned;
+    private final long timeout;
+
+    /**
+     * @param executor 执行器，null时创建threads大小的线程池
+     * @param decorator 任务装饰，可以为null
+     * @param threads 线程数
+     * @param timeout 一次校验的超时时间(毫秒)
+     */
+    public PermitParallel(Executor executor, TaskDecorator decorator,
+            int threads, long timeout) {
+        this.owned = Objects.isNull(executor) ? this.pool(threads) : null;
+        Executor target = Objects.isNull(executor) ? this.owned : executor;
+        this.executor = Objects.isNull(decorator) ?
+                target :
+                task -> target.execute(decorator.decorate(task));
+        this.timeout = TimeUnit.MILLISECONDS.toNanos(timeout);
+    }
+
+    /**
+     * 并行执行，任意一个返回true时取消其他
+     * @param tasks
+     * @return true: 存在通过的任务
+     *         false: 所有任务都不通过
+     *         null: 超时或者执行器拒绝，需要顺序校验
+     */
+    Boolean any(List<Callable<Boolean>> tasks) {
+        CompletionService<Boolean> completion = new ExecutorCompletionService<>(
+                this.executor);
+        List<Future<Boolean>> futures = new ArrayList<>(tasks.size());
+        try {
+            for (Callable<Boolean> task : tasks) {
+                futures.add(completion.submit(task));
+            }
+            long deadline = System.nanoTime() + this.timeout;
+            RuntimeException failure = null;
+            for (int i = 0; i < futures.size(); i++) {
+                Future<Boolean> future = completion
+                        .poll(deadline - System.nanoTime(),
+                                TimeUnit.NANOSECONDS);
+                if (Objects.isNull(future)) {
+                    return null;
+                }
+                try {
+                    if (future.get()) {
+                        return true;
+                    }
+                } catch (ExecutionException e) {
+                    if (Objects.isNull(failure)) {
+                        failure = e.getCause() instanceof RuntimeException ?
+                                (RuntimeException) e.getCause() :
+                                new RuntimeException(e.getCause());
+                    }
+                }
+            }
+            if (Objects.nonNull(failure)) {
+                throw failure;
+            }
+            return false;
+        } catch (RejectedExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("权限校验被中断", e);
+        } finally {
+            for (Future<Boolean> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private ExecutorService pool(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60,
+                TimeUnit.SECONDS, new LinkedBlockingQueue<>(threads * 16),
+                task -> {
+                    Thread thread = new Thread(task,
+                            "permit-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    @Override
+    public void destroy() {
+        if (Objects.nonNull(this.owned)) {
+            this.owned.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import javax.persistence.Persistence;
+import javax.persistence.PersistenceUtil;
+
+/**
+ * JPA加载状态判断
+ * 只在JPA存在时加载
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+final class PermitPersistence {
+    private static final PersistenceUtil UTIL = Persistence
+            .getPersistenceUtil();
+
+    private PermitPersistence() {
+    }
+
+    /**
+     * 不是实体或者没有持久化提供者时为true
+     * @param value
+     * @return
+     */
+    static boolean isLoaded(Object value) {
+        return UTIL.isLoaded(value);
+    }
+}
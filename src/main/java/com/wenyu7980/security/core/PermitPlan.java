@@ -0,0 +1,54 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 类权限计划
+ * 按类构建一次，不可变
+ * 节点顺序：先属性上的Permit(按声明顺序)，后类上Permits中的Permit
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public final class PermitPlan {
+    /** 数据类型 */
+    private final Class<?> type;
+    /** 节点 */
+    private final List<PermitNode> nodes;
+
+    PermitPlan(Class<?> type, List<PermitNode> nodes) {
+        this.type = type;
+        this.nodes = Collections.unmodifiableList(nodes);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public List<PermitNode> getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 是否没有任何权限注解
+     * @return
+     */
+    public boolean isEmpty() {
+        return this.nodes.isEmpty();
+    }
+}
@@ -0,0 +1,152 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.accessor.PermitAccessor;
+import com.wenyu7980.security.accessor.PermitAccessorFactory;
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.annotation.Permits;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Field;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 类权限计划注册表
+ * 每个类只反射解析一次注解和属性，之后的校验直接使用缓存的计划
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class PermitPlanRegistry {
+    /** 计划缓存 */
+    private final ConcurrentMap<Class<?>, PermitPlan> plans = new ConcurrentHashMap<>();
+    /** 属性读取器工厂 */
+    private final PermitAccessorFactory accessors;
+    /** 编译期生成的权限计划 */
+    private final PermitGeneratedPlans generated;
+
+    public PermitPlanRegistry(PermitAccessorFactory accessors) {
+        this.accessors = accessors;
+        this.generated = PermitGeneratedPlans
+                .load(ClassUtils.getDefaultClassLoader());
+    }
+
+    PermitGeneratedPlans generated() {
+        return generated;
+    }
+
+    /**
+     * 获取类的权限计划，不存在时构建
+     * @param clazz
+     * @return
+     */
+    public PermitPlan plan(Class<?> clazz) {
+        PermitPlan plan = this.plans.get(clazz);
+        if (Objects.nonNull(plan)) {
+            return plan;
+        }
+        return this.plans.computeIfAbsent(clazz, this::build);
+    }
+
+    /**
+     * 构建类的权限计划
+     * @param clazz
+     * @return
+     */
+    private PermitPlan build(Class<?> clazz) {
+        List<PermitNode> nodes = new ArrayList<>();
+        // 属性上权限注解
+        for (Field field : clazz.getDeclaredFields()) {
+            Permit permit = field.getAnnotation(Permit.class);
+            if (Objects.nonNull(permit)) {
+                nodes.add(new PermitNode(permit,
+                        new PermitAccessor[] { this.accessor(clazz, field) },
+                        this.dynamic(clazz, permit),
+                        this.association(clazz, permit), field));
+            }
+        }
+        // 类型上权限注解
+        Permits permits = clazz.getAnnotation(Permits.class);
+        if (Objects.nonNull(permits)) {
+            for (Permit permit : permits.permits()) {
+                PermitAccessor[] fields = new PermitAccessor[permit.names().length];
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = this.field(clazz, permit.names()[i]);
+                }
+                nodes.add(new PermitNode(permit, fields,
+                        this.dynamic(clazz, permit),
+                        this.association(clazz, permit), null));
+            }
+        }
+        return new PermitPlan(clazz, nodes);
+    }
+
+    /**
+     * 动态关联属性
+     * @param clazz
+     * @param permit
+     * @return
+     */
+    private PermitAccessor dynamic(Class<?> clazz, Permit permit) {
+        if ("".equals(permit.dynamic())) {
+            return null;
+        }
+        return this.field(clazz, permit.dynamic());
+    }
+
+    /**
+     * 已加载的上级资源属性
+     * @param clazz
+     * @param permit
+     * @return
+     */
+    private PermitAccessor association(Class<?> clazz, Permit permit) {
+        if ("".equals(permit.association())) {
+            return null;
+        }
+        return this.field(clazz, permit.association());
+    }
+
+    private PermitAccessor field(Class<?> clazz, String name) {
+        try {
+            return this.accessor(clazz, clazz.getDeclaredField(name));
+        } catch (NoSuchFieldException e) {
+            throw new RuntimeException(MessageFormat
+                    .format("{0}中不存在属性{1}", clazz.getName(), name), e);
+        }
+    }
+
+    /**
+     * 属性读取器，优先使用编译期生成的读取器
+     * @param clazz
+     * @param field
+     * @return
+     */
+    private PermitAccessor accessor(Class<?> clazz, Field field) {
+        PermitAccessor accessor = this.generated
+                .accessor(clazz, field.getName());
+        if (Objects.nonNull(accessor)) {
+            return accessor;
+        }
+        field.setAccessible(true);
+        return this.accessors.create(field);
+    }
+}
@@ -0,0 +1,518 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.accessor.LambdaPermitAccessorFactory;
+import com.wenyu7980.security.accessor.PermitAccessorFactory;
+import com.wenyu7980.security.accessor.ReflectionPermitAccessorFactory;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 数据权限配置
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+@ConfigurationProperties(prefix = "data-permit")
+public class PermitProperties {
+    /** 权限属性读取策略 */
+    private Accessor accessor = Accessor.REFLECTION;
+    /** 上级资源校验结果的共享范围 */
+    private Memo memo = Memo.CHECK;
+    /** 根校验结果缓存 */
+    private final Cache cache = new Cache();
+    /** 根资源集合 */
+    private final RootSet rootSet = new RootSet();
+    /** 并行校验 */
+    private final Parallel parallel = new Parallel();
+    /** 指标 */
+    private final Metrics metrics = new Metrics();
+    /** 启动校验 */
+    private final Startup startup = new Startup();
+    /** 查询前权限条件 */
+    private final Predicate predicate = new Predicate();
+    /** 上级资源遍历 */
+    private final Traversal traversal = new Traversal();
+    /** 校验过程采样 */
+    private final Trace trace = new Trace();
+    /** 上级资源查询保护 */
+    private final Guard guard = new Guard();
+
+    public Accessor getAccessor() {
+        return accessor;
+    }
+
+    public void setAccessor(Accessor accessor) {
+        this.accessor = accessor;
+    }
+
+    public Memo getMemo() {
+        return memo;
+    }
+
+    public void setMemo(Memo memo) {
+        this.memo = memo;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public RootSet getRootSet() {
+        return rootSet;
+    }
+
+    public Parallel getParallel() {
+        return parallel;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Startup getStartup() {
+        return startup;
+    }
+
+    public Predicate getPredicate() {
+        return predicate;
+    }
+
+    public Traversal getTraversal() {
+        return traversal;
+    }
+
+    public Trace getTrace() {
+        return trace;
+    }
+
+    public Guard getGuard() {
+        return guard;
+    }
+
+    /**
+     * 上级资源校验结果的共享范围
+     */
+    public enum Memo {
+        /** 一次校验内 */
+        CHECK,
+        /** 一次web请求内，不在请求中时同CHECK */
+        REQUEST,
+        /**
+         * 一次web请求内按用户共享，同时跳过请求内已经通过的数据对象
+         * PermitConfig需要实现CacheablePermitConfig，用户为null或者不在请求中时同CHECK
+         */
+        PRINCIPAL
+    }
+
+    /**
+     * 权限属性读取策略
+     */
+    public enum Accessor {
+        /** 反射 */
+        REFLECTION(ReflectionPermitAccessorFactory::new),
+        /**
+         * LambdaMetafactory生成的public getter调用，读取getter的返回值
+         * 没有可访问的getter时使用反射
+         */
+        LAMBDA(LambdaPermitAccessorFactory::new);
+
+        private final Supplier<PermitAccessorFactory> factory;
+
+        Accessor(Supplier<PermitAccessorFactory> factory) {
+            this.factory = factory;
+        }
+
+        public PermitAccessorFactory factory() {
+            return this.factory.get();
+        }
+    }
+
+    /**
+     * 根校验结果缓存
+     * PermitConfig需要实现CacheablePermitConfig
+     */
+    public static class Cache {
+        /** 是否开启 */
+        private boolean enabled = false;
+        /** 最大缓存数量 */
+        private long maximumSize = 10000;
+        /** 缓存时间 */
+        private Duration ttl = Duration.ofMinutes(1);
+        /** 存在共享缓存时本地缓存的时间，null表示与ttl相同 */
+        private Duration nearTtl;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Duration getNearTtl() {
+            return nearTtl;
+        }
+
+        public void setNearTtl(Duration nearTtl) {
+            this.nearTtl = nearTtl;
+        }
+    }
+
+    /**
+     * 根资源集合
+     * PermitConfig需要实现RootSetPermitConfig
+     */
+    public static class RootSet {
+        /** 是否开启 */
+        private boolean enabled = false;
+        /** 按用户缓存的时间，0表示只在一次请求内有效 */
+        private Duration ttl = Duration.ZERO;
+        /** 最大缓存用户数量 */
+        private int maximumSize = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public int getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(int maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+    }
+
+    /**
+     * 并行校验
+     * 数据存在多个权限节点时并行校验，任意一个通过即返回，超时后顺序校验
+     * 可以注入名为permitExecutor的Executor Bean替换默认线程池，
+     * 注入TaskDecorator Bean传递PermitConfig依赖的线程变量
+     */
+    public static class Parallel {
+        /** 是否开启 */
+        private boolean enabled = false;
+        /** 默认线程池大小 */
+        private int threads = Runtime.getRuntime().availableProcessors();
+        /** 一次校验的超时时间 */
+        private Duration timeout = Duration.ofSeconds(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * 指标
+     * 需要micrometer，开启后通过MeterRegistry记录校验耗时，查询次数，深度和结果
+     */
+    public static class Metrics {
+        /** 是否开启 */
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * 启动校验
+     * 启动时扫描包下的Permit注解和PermitMethod方法，校验上级资源关系并预先构建权限计划
+     */
+    public static class Startup {
+        /** 是否开启 */
+        private boolean enabled = false;
+        /** 扫描的包，为空时使用自动配置包和EnableDataPermit所在的包 */
+        private List<String> packages = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getPackages() {
+            return packages;
+        }
+
+        public void setPackages(List<String> packages) {
+            this.packages = packages;
+        }
+    }
+
+    /**
+     * 查询前权限条件
+     */
+    public static class Predicate {
+        /** 上级资源最大深度，超过时视为不通过，未设置时同traversal.max-depth */
+        private Integer maxDepth;
+
+        public Integer getMaxDepth() {
+            return maxDepth;
+        }
+
+        public void setMaxDepth(Integer maxDepth) {
+            this.maxDepth = maxDepth;
+        }
+    }
+
+    /**
+     * 校验过程采样
+     */
+    public static class Trace {
+        /** 是否开启 */
+        private boolean enabled = false;
+        /** 采样比例 */
+        private double sampleRate = 0.01D;
+        /** 耗时不小于该值的过程被保存，不通过的过程总是保存 */
+        private Duration threshold = Duration.ZERO;
+        /** 保存的过程数量 */
+        private int capacity = 100;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public Duration getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(Duration threshold) {
+            this.threshold = threshold;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    /**
+     * 上级资源遍历
+     */
+    public static class Traversal {
+        /** 遍历顺序 */
+        private Order order = Order.DEPTH_FIRST;
+        /** 上级资源最大深度，超过时视为不通过 */
+        private int maxDepth = 32;
+
+        public Order getOrder() {
+            return order;
+        }
+
+        public void setOrder(Order order) {
+            this.order = order;
+        }
+
+        public int getMaxDepth() {
+            return maxDepth;
+        }
+
+        public void setMaxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+        }
+
+        public enum Order {
+            /** 深度优先，按权限节点顺序逐条路径校验 */
+            DEPTH_FIRST,
+            /** 广度优先，浅层的根校验先于深层的上级资源查询 */
+            BREADTH_FIRST
+        }
+    }
+
+    /**
+     * 上级资源查询保护
+     * 按关联数据查询服务类限制并发、超时和熔断，types中按服务类的类名或者简单类名覆盖默认值
+     */
+    public static class Guard extends Limit {
+        /** 是否开启 */
+        private boolean enabled = false;
+        /** 拒绝时的处理 */
+        private Failure failure = Failure.EXCEPTION;
+        /** 服务类 -> 限制 */
+        private Map<String, Limit> types = new LinkedHashMap<>();
+
+        public Guard() {
+            this.setMaxConcurrent(32);
+            this.setMaxWait(Duration.ZERO);
+            this.setFailureThreshold(5);
+            this.setOpenDuration(Duration.ofSeconds(30));
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Failure getFailure() {
+            return failure;
+        }
+
+        public void setFailure(Failure failure) {
+            this.failure = failure;
+        }
+
+        public Map<String, Limit> getTypes() {
+            return types;
+        }
+
+        public void setTypes(Map<String, Limit> types) {
+            this.types = types;
+        }
+
+        public enum Failure {
+            /** 立即抛出PermitConfig#exception */
+            EXCEPTION,
+            /** 视为上级资源不存在，继续校验其他权限属性 */
+            DENY
+        }
+    }
+
+    /**
+     * 一个服务类的查询限制，null表示使用默认值
+     */
+    public static class Limit {
+        /** 最大并发查询数，0表示不限制 */
+        private Integer maxConcurrent;
+        /** 达到最大并发时的等待时间 */
+        private Duration maxWait;
+        /** 查询超时时间，设定时查询在独立线程中执行 */
+        private Duration timeout;
+        /** 连续失败(异常或者超时)多少次后熔断，0表示不熔断 */
+        private Integer failureThreshold;
+        /** 熔断时间，之后放行一次查询，成功时恢复 */
+        private Duration openDuration;
+
+        public Integer getMaxConcurrent() {
+            return maxConcurrent;
+        }
+
+        public void setMaxConcurrent(Integer maxConcurrent) {
+            this.maxConcurrent = maxConcurrent;
+        }
+
+        public Duration getMaxWait() {
+            return maxWait;
+        }
+
+        public void setMaxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Integer getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(Integer failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public Duration getOpenDuration() {
+            return openDuration;
+        }
+
+        public void setOpenDuration(Duration openDuration) {
+            this.openDuration = openDuration;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.PermitMethod;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * 响应式返回值处理
+ * 不依赖reactor的类型，reactor不存在时不会注入
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public interface PermitReactiveHandler {
+    /**
+     * 是否是响应式返回值
+     * @param ret
+     * @return
+     */
+    boolean supports(Object ret);
+
+    /**
+     * 将权限校验组合到返回值中
+     * @param ret
+     * @param permitMethod
+     * @param exception 权限不足异常
+     * @return
+     */
+    Object permit(Object ret, PermitMethod permitMethod,
+            Supplier<RuntimeException> exception);
+
+    /**
+     * 是否是响应式返回类型
+     * @param type 方法返回类型
+     * @return
+     */
+    boolean supportsType(Class<?> type);
+
+    /**
+     * 方法执行前校验，校验和方法调用推迟到订阅时，不阻塞订阅线程
+     * @param type 方法返回类型
+     * @param check 同步校验
+     * @param proceed 调用方法
+     * @param exception 权限不足异常
+     * @return
+     */
+    Object before(Class<?> type, Supplier<Boolean> check,
+            Callable<Object> proceed, Supplier<RuntimeException> exception);
+}
@@ -0,0 +1,39 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.lang.reflect.Field;
+
+/**
+ * 脱敏处理
+ * PermitMethod.redact为true时，对没有权限的复杂类型属性调用，返回值写回该属性
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+@FunctionalInterface
+public interface PermitRedactor {
+    /** 置为null */
+    PermitRedactor NULLIFY = (owner, field, value) -> null;
+
+    /**
+     * 脱敏
+     * @param owner 属性所在的数据
+     * @param field 复杂类型属性
+     * @param value 没有权限的属性值
+     * @return 写回属性的值，null表示置空
+     */
+    Object redact(Object owner, Field field, Object value);
+}
@@ -0,0 +1,103 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 一次请求内一个用户的校验结果
+ * 上级资源的校验结果，以及已经通过的数据对象(按对象标识)
+ * 数据对象在请求内被修改了权限属性时不会重新校验
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+final class PermitRequestMemo {
+    /** 上级资源的校验结果 */
+    private final Map<PermitKey, Boolean> decisions = new ConcurrentHashMap<>();
+    /** 已经通过的数据 */
+    private final Set<Object> granted = Collections
+            .synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    Map<PermitKey, Boolean> decisions() {
+        return decisions;
+    }
+
+    /**
+     * 数据是否已经通过
+     * @param obj 数据，可以是Optional
+     * @return
+     */
+    boolean isGranted(Object obj) {
+        return this.granted.contains(this.unwrap(obj));
+    }
+
+    /**
+     * 记录通过的数据
+     * @param obj 数据，可以是Optional
+     */
+    void grant(Object obj) {
+        obj = this.unwrap(obj);
+        if (Objects.nonNull(obj)) {
+            this.granted.add(obj);
+        }
+    }
+
+    /**
+     * 需要校验的数据
+     * @param objs
+     * @return 已经通过的数据替换为null，与objs顺序一致
+     */
+    List<?> unchecked(List<?> objs) {
+        List<Object> unchecked = null;
+        for (int i = 0; i < objs.size(); i++) {
+            if (this.isGranted(objs.get(i))) {
+                if (Objects.isNull(unchecked)) {
+                    unchecked = new ArrayList<>(objs);
+                }
+                unchecked.set(i, null);
+            }
+        }
+        return Objects.isNull(unchecked) ? objs : unchecked;
+    }
+
+    /**
+     * 记录批量校验中通过的数据
+     * @param objs
+     * @param granted 与objs顺序一致的校验结果
+     */
+    void grant(List<?> objs, boolean[] granted) {
+        for (int i = 0; i < granted.length; i++) {
+            if (granted[i]) {
+                this.grant(objs.get(i));
+            }
+        }
+    }
+
+    private Object unwrap(Object obj) {
+        if (obj instanceof Optional) {
+            return ((Optional<?>) obj).orElse(null);
+        }
+        return obj;
+    }
+}
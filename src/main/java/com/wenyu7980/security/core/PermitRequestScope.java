@@ -0,0 +1,87 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 请求内共享的校验结果
+ * 只在spring-web存在时加载
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+final class PermitRequestScope {
+    private static final String DECISIONS = PermitRequestScope.class.getName()
+            + ".DECISIONS";
+    private static final String ROOT_SETS = PermitRequestScope.class.getName()
+            + ".ROOT_SETS";
+    private static final String MEMOS = PermitRequestScope.class.getName()
+            + ".MEMOS";
+
+    private PermitRequestScope() {
+    }
+
+    /**
+     * 当前请求的校验结果
+     * @return null表示不在请求中
+     */
+    static Map<PermitKey, Boolean> decisions() {
+        return attribute(DECISIONS);
+    }
+
+    /**
+     * 当前请求加载的根资源集合，key为用户
+     * @return null表示不在请求中
+     */
+    static Map<Object, Map<String, PermitRootSet>> rootSets() {
+        return attribute(ROOT_SETS);
+    }
+
+    /**
+     * 当前请求中用户的校验结果
+     * @param principal
+     * @return null表示不在请求中
+     */
+    static PermitRequestMemo memo(Object principal) {
+        Map<Object, PermitRequestMemo> memos = attribute(MEMOS);
+        if (Objects.isNull(memos)) {
+            return null;
+        }
+        return memos.computeIfAbsent(principal, p -> new PermitRequestMemo());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Map<K, V> attribute(String name) {
+        RequestAttributes attributes = RequestContextHolder
+                .getRequestAttributes();
+        if (Objects.isNull(attributes)) {
+            return null;
+        }
+        Map<K, V> map = (Map<K, V>) attributes
+                .getAttribute(name, RequestAttributes.SCOPE_REQUEST);
+        if (Objects.isNull(map)) {
+            map = new ConcurrentHashMap<>();
+            attributes.setAttribute(name, map,
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,142 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.springframework.core.CollectionFactory;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 批量返回值处理
+ * 支持Collection，Stream，对象数组，Page和Slice
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+final class PermitResults {
+    private static final boolean DATA_PRESENT = ClassUtils
+            .isPresent("org.springframework.data.domain.Slice",
+                    PermitResults.class.getClassLoader());
+
+    private PermitResults() {
+    }
+
+    /**
+     * 是否是批量返回值
+     * @param ret
+     * @return
+     */
+    static boolean isBatch(Object ret) {
+        return ret instanceof Collection || ret instanceof Stream || (
+                ret.getClass().isArray() && !ret.getClass().getComponentType()
+                        .isPrimitive()) || (DATA_PRESENT && PermitSlices
+                .isSlice(ret));
+    }
+
+    /**
+     * 批量返回值中的数据
+     * Stream会被消费并关闭，释放数据库游标等资源
+     * @param ret
+     * @return
+     */
+    static List<Object> elements(Object ret) {
+        if (ret instanceof Collection) {
+            return new ArrayList<>((Collection<?>) ret);
+        }
+        if (ret instanceof Stream) {
+            try (Stream<?> stream = (Stream<?>) ret) {
+                return stream.collect(Collectors.toList());
+            }
+        }
+        if (ret.getClass().isArray()) {
+            return Arrays.asList((Object[]) ret);
+        }
+        return new ArrayList<>(PermitSlices.content(ret));
+    }
+
+    /**
+     * 过滤掉无权限的数据后，构造与原返回值类型一致的返回值
+     * @param ret 原返回值
+     * @param elements 原返回值中的数据
+     * @param granted 数据的校验结果
+     * @param returnType 方法声明的返回值类型
+     * @return
+     */
+    static Object filter(Object ret, List<Object> elements, boolean[] granted,
+            Class<?> returnType) {
+        List<Object> permitted = new ArrayList<>(elements.size());
+        for (int i = 0; i < granted.length; i++) {
+            if (granted[i]) {
+                permitted.add(elements.get(i));
+            }
+        }
+        if (ret instanceof Stream) {
+            return permitted.stream();
+        }
+        if (permitted.size() == elements.size()) {
+            return ret;
+        }
+        if (ret instanceof Collection) {
+            Collection<Object> collection = CollectionFactory
+                    .createCollection(collectionType(ret, returnType),
+                            permitted.size());
+            collection.addAll(permitted);
+            return collection;
+        }
+        if (ret.getClass().isArray()) {
+            return permitted.toArray((Object[]) Array
+                    .newInstance(ret.getClass().getComponentType(),
+                            permitted.size()));
+        }
+        return PermitSlices
+                .rebuild(ret, permitted, elements.size() - permitted.size());
+    }
+
+    /**
+     * 过滤后的集合类型
+     * 方法声明的集合类型优先，声明为Collection时按原返回值是否是Set决定
+     * @param ret
+     * @param returnType
+     * @return
+     */
+    private static Class<?> collectionType(Object ret, Class<?> returnType) {
+        if (Collection.class.isAssignableFrom(returnType) && !Collection.class
+                .equals(returnType)) {
+            return returnType;
+        }
+        return ret instanceof Set ? Set.class : List.class;
+    }
+
+    /**
+     * 通过时保留原返回值，Stream已被消费并关闭，需要重新构造
+     * @param ret
+     * @param elements
+     * @return
+     */
+    static Object restore(Object ret, List<Object> elements) {
+        if (ret instanceof Stream) {
+            return elements.stream();
+        }
+        return ret;
+    }
+}
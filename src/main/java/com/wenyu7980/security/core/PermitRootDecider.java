@@ -0,0 +1,158 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.cache.PermitDecisionCache;
+import com.wenyu7980.security.cache.PermitDecisionKey;
+import com.wenyu7980.security.metrics.PermitMetrics;
+
+import java.util.Objects;
+
+/**
+ * 根校验
+ * 存在根资源集合且集合中有对应的Permit.type时通过集合判断；
+ * 否则PermitConfig实现CacheablePermitConfig且存在缓存时，使用缓存的校验结果；
+ * 都没有时调用PermitConfig#checkPermit
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class PermitRootDecider {
+    private final PermitConfig permitConfig;
+    /** null表示不缓存 */
+    private final PermitDecisionCache cache;
+    /** 指标 */
+    private PermitMetrics metrics = PermitMetrics.NOOP;
+    /** 根资源集合，null表示不使用 */
+    private PermitRootSets rootSets;
+
+    public PermitRootDecider(PermitConfig permitConfig,
+            PermitDecisionCache cache) {
+        this.permitConfig = permitConfig;
+        this.cache = permitConfig instanceof CacheablePermitConfig ?
+                cache :
+                null;
+    }
+
+    public void setMetrics(PermitMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void setRootSets(PermitRootSets rootSets) {
+        this.rootSets = rootSets;
+    }
+
+    /**
+     * 当前用户
+     * @return PermitConfig没有实现CacheablePermitConfig时为null
+     */
+    public Object principal() {
+        if (this.permitConfig instanceof CacheablePermitConfig) {
+            return ((CacheablePermitConfig) this.permitConfig).principal();
+        }
+        return null;
+    }
+
+    /**
+     * 是否使用根资源集合或者缓存，此时开始和完成根校验可能阻塞
+     * @return
+     */
+    public boolean isBlocking() {
+        return Objects.nonNull(this.rootSets) || Objects.nonNull(this.cache);
+    }
+
+    /**
+     * 根校验
+     * @param value 根资源属性值
+     * @param permit 根资源属性上的注解
+     * @return
+     */
+    public boolean check(Object value, Permit permit) {
+        Decision decision = this.begin(value, permit);
+        return decision.complete(Objects.nonNull(decision.getGranted()) ?
+                decision.getGranted() :
+                this.permitConfig.checkPermit(value, permit));
+    }
+
+    /**
+     * 开始根校验，根资源集合或者缓存中存在结果时直接得到结果，
+     * 否则由调用方校验后通过{@link Decision#complete(boolean)}记录，
+     * 响应式校验通过该方法使用集合、缓存和指标
+     * @param value 根资源属性值
+     * @param permit 根资源属性上的注解
+     * @return
+     */
+    public Decision begin(Object value, Permit permit) {
+        if (Objects.nonNull(this.rootSets)) {
+            Boolean granted = this.rootSets.decide(value, permit);
+            if (Objects.nonNull(granted)) {
+                return new Decision(permit, null, 0L, granted);
+            }
+        }
+        if (Objects.isNull(this.cache)) {
+            return new Decision(permit, null, 0L, null);
+        }
+        Object principal = ((CacheablePermitConfig) this.permitConfig)
+                .principal();
+        if (Objects.isNull(principal)) {
+            return new Decision(permit, null, 0L, null);
+        }
+        PermitDecisionKey key = new PermitDecisionKey(principal,
+                permit.type(), value);
+        // 校验期间发生失效时不缓存旧的结果
+        long generation = this.cache.generation(key);
+        return new Decision(permit, key, generation, this.cache.get(key));
+    }
+
+    /**
+     * 一次根校验
+     */
+    public final class Decision {
+        private final Permit permit;
+        /** 缓存键，不缓存时为null */
+        private final PermitDecisionKey key;
+        private final long generation;
+        /** 集合或者缓存中的结果，null表示需要调用PermitConfig */
+        private final Boolean granted;
+
+        private Decision(Permit permit, PermitDecisionKey key, long generation,
+                Boolean granted) {
+            this.permit = permit;
+            this.key = key;
+            this.generation = generation;
+            this.granted = granted;
+        }
+
+        public Boolean getGranted() {
+            return granted;
+        }
+
+        /**
+         * 完成根校验，记录缓存和指标
+         * @param granted 校验结果
+         * @return granted
+         */
+        public boolean complete(boolean granted) {
+            if (Objects.isNull(this.granted) && Objects.nonNull(this.key)) {
+                cache.put(this.key, granted, this.generation);
+            }
+            if (metrics.enabled()) {
+                metrics.root(this.permit, granted);
+            }
+            return granted;
+        }
+    }
+}
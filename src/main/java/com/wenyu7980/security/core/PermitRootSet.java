@@ -0,0 +1,223 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.*;
+
+/**
+ * 用户可访问的根资源集合
+ * 整数ID按范围选择位图或者排序后的int/long数组，其他类型使用HashSet。
+ * 整数ID按数值比较，Integer和Long的相同数值视为相同
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public abstract class PermitRootSet {
+    /** 全部可访问 */
+    public static final PermitRootSet ALL = new PermitRootSet() {
+        @Override
+        public boolean contains(Object value) {
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return -1;
+        }
+    };
+    /** 全部不可访问 */
+    public static final PermitRootSet NONE = new PermitRootSet() {
+        @Override
+        public boolean contains(Object value) {
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return 0;
+        }
+    };
+
+    private PermitRootSet() {
+    }
+
+    /**
+     * 是否可访问
+     * @param value 根资源属性值
+     * @return
+     */
+    public abstract boolean contains(Object value);
+
+    /**
+     * 数量
+     * @return ALL时返回-1
+     */
+    public abstract int size();
+
+    /**
+     * 构建集合
+     * @param values null表示全部可访问
+     * @return
+     */
+    public static PermitRootSet of(Collection<?> values) {
+        if (Objects.isNull(values)) {
+            return ALL;
+        }
+        if (values.isEmpty()) {
+            return NONE;
+        }
+        for (Object value : values) {
+            if (!integral(value)) {
+                return new Hash(new HashSet<>(values));
+            }
+        }
+        long[] longs = new long[values.size()];
+        int size = 0;
+        for (Object value : values) {
+            longs[size++] = ((Number) value).longValue();
+        }
+        Arrays.sort(longs);
+        // 去重
+        size = 1;
+        for (int i = 1; i < longs.length; i++) {
+            if (longs[i] != longs[size - 1]) {
+                longs[size++] = longs[i];
+            }
+        }
+        long min = longs[0];
+        long max = longs[size - 1];
+        // 位图每个ID一位，数组每个ID 32或64位
+        if (max - min >= 0 && max - min < 32L * size) {
+            return new Bitmap(longs, size);
+        }
+        if (min >= Integer.MIN_VALUE && max <= Integer.MAX_VALUE) {
+            int[] ints = new int[size];
+            for (int i = 0; i < size; i++) {
+                ints[i] = (int) longs[i];
+            }
+            return new Ints(ints);
+        }
+        return new Longs(Arrays.copyOf(longs, size));
+    }
+
+    private static boolean integral(Object value) {
+        return value instanceof Long || value instanceof Integer
+                || value instanceof Short || value instanceof Byte;
+    }
+
+    /**
+     * 位图，适用于ID比较密集的情况
+     */
+    private static final class Bitmap extends PermitRootSet {
+        private final long min;
+        private final long[] words;
+        private final int size;
+
+        private Bitmap(long[] sorted, int size) {
+            this.min = sorted[0];
+            this.words = new long[(int) ((sorted[size - 1] - this.min)
+                    >>> 6) + 1];
+            for (int i = 0; i < size; i++) {
+                long offset = sorted[i] - this.min;
+                this.words[(int) (offset >>> 6)] |= 1L << offset;
+            }
+            this.size = size;
+        }
+
+        @Override
+        public boolean contains(Object value) {
+            if (!integral(value)) {
+                return false;
+            }
+            long offset = ((Number) value).longValue() - this.min;
+            if (offset < 0 || (offset >>> 6) >= this.words.length) {
+                return false;
+            }
+            return (this.words[(int) (offset >>> 6)] & (1L << offset)) != 0;
+        }
+
+        @Override
+        public int size() {
+            return this.size;
+        }
+    }
+
+    /**
+     * 排序的int数组
+     */
+    private static final class Ints extends PermitRootSet {
+        private final int[] values;
+
+        private Ints(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean contains(Object value) {
+            if (!integral(value)) {
+                return false;
+            }
+            long id = ((Number) value).longValue();
+            return id >= Integer.MIN_VALUE && id <= Integer.MAX_VALUE
+                    && Arrays.binarySearch(this.values, (int) id) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return this.values.length;
+        }
+    }
+
+    /**
+     * 排序的long数组
+     */
+    private static final class Longs extends PermitRootSet {
+        private final long[] values;
+
+        private Longs(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean contains(Object value) {
+            return integral(value) && Arrays
+                    .binarySearch(this.values, ((Number) value).longValue())
+                    >= 0;
+        }
+
+        @Override
+        public int size() {
+            return this.values.length;
+        }
+    }
+
+    private static final class Hash extends PermitRootSet {
+        private final Set<Object> values;
+
+        private Hash(Set<Object> values) {
+            this.values = values;
+        }
+
+        @Override
+        public boolean contains(Object value) {
+            return this.values.contains(value);
+        }
+
+        @Override
+        public int size() {
+            return this.values.size();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.cache.PermitInvalidation;
+import org.springframework.util.ClassUtils;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * 用户可访问的根资源集合
+ * ttl为0时只在一次请求内有效，否则按用户缓存ttl时间，超过最大数量时移除最久未使用的用户
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class PermitRootSets {
+    private static final boolean WEB_PRESENT = ClassUtils
+            .isPresent("org.springframework.web.context.request.RequestContextHolder",
+                    PermitRootSets.class.getClassLoader());
+    private final RootSetPermitConfig config;
+    private final long ttl;
+    /** 用户 -> 根资源集合 */
+    private final Map<Object, Entry> entries;
+
+    public PermitRootSets(RootSetPermitConfig config, Duration ttl,
+            int maximumSize) {
+        this.config = config;
+        this.ttl = ttl.toNanos();
+        this.entries = new LinkedHashMap<Object, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(
+                    Map.Entry<Object, PermitRootSets.Entry> eldest) {
+                return this.size() > maximumSize;
+            }
+        };
+    }
+
+    /**
+     * 根校验
+     * @param value
+     * @param permit
+     * @return null表示没有对应的集合
+     */
+    public Boolean decide(Object value, Permit permit) {
+        Object principal = this.config.principal();
+        if (Objects.isNull(principal)) {
+            return null;
+        }
+        PermitRootSet set = this.sets(principal).get(permit.type());
+        if (Objects.isNull(set)) {
+            return null;
+        }
+        return set.contains(value);
+    }
+
+    /**
+     * 用户的根资源变化后清除
+     * @param principal
+     */
+    public void invalidate(Object principal) {
+        synchronized (this.entries) {
+            this.entries.remove(principal);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (this.entries) {
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * 处理根校验结果缓存的失效事件
+     * @param invalidation
+     */
+    public void apply(PermitInvalidation invalidation) {
+        switch (invalidation.getScope()) {
+        case PRINCIPAL:
+        case ENTRY:
+            this.invalidate(invalidation.getPrincipal());
+            break;
+        default:
+            this.invalidateAll();
+        }
+    }
+
+    private Map<String, PermitRootSet> sets(Object principal) {
+        if (this.ttl <= 0) {
+            Map<Object, Map<String, PermitRootSet>> request = WEB_PRESENT ?
+                    PermitRequestScope.rootSets() :
+                    null;
+            if (Objects.isNull(request)) {
+                return this.load(principal);
+            }
+            Map<String, PermitRootSet> sets = request.get(principal);
+            if (Objects.isNull(sets)) {
+                sets = this.load(principal);
+                request.put(principal, sets);
+            }
+            return sets;
+        }
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (this.entries) {
+            entry = this.entries.get(principal);
+        }
+        if (Objects.nonNull(entry) && now - entry.loaded < this.ttl) {
+            return entry.sets;
+        }
+        entry = new Entry(this.load(principal), now);
+        synchronized (this.entries) {
+            this.entries.put(principal, entry);
+        }
+        return entry.sets;
+    }
+
+    private Map<String, PermitRootSet> load(Object principal) {
+        Map<String, ? extends Collection<?>> roots = this.config
+                .roots(principal);
+        if (Objects.isNull(roots) || roots.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, PermitRootSet> sets = new HashMap<>();
+        roots.forEach((type, values) -> sets.put(type, PermitRootSet.of(values)));
+        return sets;
+    }
+
+    private static final class Entry {
+        private final Map<String, PermitRootSet> sets;
+        private final long loaded;
+
+        private Entry(Map<String, PermitRootSet> sets, long loaded) {
+            this.sets = sets;
+            this.loaded = loaded;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+/**
+ * Spring Data分页返回值处理
+ * 只在spring-data-commons存在时加载
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+final class PermitSlices {
+    private PermitSlices() {
+    }
+
+    static boolean isSlice(Object ret) {
+        return ret instanceof Slice;
+    }
+
+    static List<?> content(Object ret) {
+        return ((Slice<?>) ret).getContent();
+    }
+
+    /**
+     * 构造过滤后的分页
+     * Page的总数减去当前页过滤掉的数量，其他页没有查询，其中无权限的数据仍然计入总数；
+     * 需要准确的总数时在查询条件中过滤，参考PermitPredicateBuilder
+     * @param ret
+     * @param permitted
+     * @param removed
+     * @return
+     */
+    static Object rebuild(Object ret, List<Object> permitted, int removed) {
+        if (ret instanceof Page) {
+            Page<?> page = (Page<?>) ret;
+            return new PageImpl<>(permitted, page.getPageable(),
+                    page.getTotalElements() - removed);
+        }
+        Slice<?> slice = (Slice<?>) ret;
+        return new SliceImpl<>(permitted, slice.getPageable(),
+                slice.hasNext());
+    }
+}
@@ -0,0 +1,487 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.EnableDataPermit;
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.annotation.PermitMethod;
+import com.wenyu7980.security.annotation.Permits;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.AutoConfigurationPackages;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.text.MessageFormat;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * 启动校验
+ * 扫描包下带Permit/Permits注解的类和PermitMethod方法的返回类型，
+ * 校验关联服务类，ID构造，动态关联属性，以及每个类型都能到达根校验，
+ * 同时预先构建权限计划和服务类绑定，首次校验不再反射解析
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class PermitStartupValidator implements SmartInitializingSingleton {
+    private final BeanFactory beanFactory;
+    private final PermitPlanRegistry plans;
+    private final PermittableRegistry permittables;
+    private final PermitProperties properties;
+    /** 类型 -> 上级资源类型，null表示无法静态确定 */
+    private final Map<Class<?>, Set<Class<?>>> graph = new LinkedHashMap<>();
+    /** 直接包含根校验的类型 */
+    private final Set<Class<?>> roots = new HashSet<>();
+    private final List<String> errors = new ArrayList<>();
+
+    public PermitStartupValidator(BeanFactory beanFactory,
+            PermitPlanRegistry plans, PermittableRegistry permittables,
+            PermitProperties properties) {
+        this.beanFactory = beanFactory;
+        this.plans = plans;
+        this.permittables = permittables;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Class<?> clazz : this.scan()) {
+            if (this.annotated(clazz)) {
+                this.visit(clazz);
+            }
+            for (Method method : clazz.getDeclaredMethods()) {
+                if (method.isAnnotationPresent(PermitMethod.class)) {
+                    this.method(method);
+                }
+            }
+        }
+        this.reachable();
+        if (!this.errors.isEmpty()) {
+            throw new RuntimeException(MessageFormat
+                    .format("数据权限配置错误:\n{0}",
+                            String.join("\n", this.errors)));
+        }
+    }
+
+    /**
+     * 扫描包下的类
+     * @return
+     */
+    private List<Class<?>> scan() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(
+                false) {
+            @Override
+            protected boolean isCandidateComponent(
+                    AnnotatedBeanDefinition definition) {
+                return true;
+            }
+        };
+        scanner.addIncludeFilter((reader, factory) -> true);
+        ClassLoader loader = ClassUtils.getDefaultClassLoader();
+        List<Class<?>> classes = new ArrayList<>();
+        for (String pkg : this.packages()) {
+            for (BeanDefinition definition : scanner
+                    .findCandidateComponents(pkg)) {
+                try {
+                    classes.add(ClassUtils
+                            .forName(definition.getBeanClassName(), loader));
+                } catch (ClassNotFoundException | LinkageError e) {
+                    // 依赖缺失的类不参与校验
+                }
+            }
+        }
+        return classes;
+    }
+
+    /**
+     * 扫描的包
+     * @return
+     */
+    private Set<String> packages() {
+        Set<String> packages = new LinkedHashSet<>(
+                this.properties.getStartup().getPackages());
+        if (!packages.isEmpty()) {
+            return packages;
+        }
+        if (AutoConfigurationPackages.has(this.beanFactory)) {
+            packages.addAll(AutoConfigurationPackages.get(this.beanFactory));
+        }
+        if (this.beanFactory instanceof ListableBeanFactory) {
+            ListableBeanFactory factory = (ListableBeanFactory) this.beanFactory;
+            for (String name : factory
+                    .getBeanNamesForAnnotation(EnableDataPermit.class)) {
+                Class<?> type = factory.getType(name);
+                if (Objects.nonNull(type)) {
+                    packages.add(ClassUtils.getPackageName(
+                            ClassUtils.getUserClass(type)));
+                }
+            }
+        }
+        return packages;
+    }
+
+    private boolean annotated(Class<?> clazz) {
+        if (clazz.isAnnotationPresent(Permits.class)) {
+            return true;
+        }
+        for (Field field : clazz.getDeclaredFields()) {
+            if (field.isAnnotationPresent(Permit.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * PermitMethod方法的返回数据类型
+     * @param method
+     */
+    private void method(Method method) {
+        PermitMethod permitMethod = method.getAnnotation(PermitMethod.class);
+        if (!Permittable.class.equals(permitMethod.before())) {
+            this.before(method, permitMethod);
+            return;
+        }
+        Class<?> clazz = this.element(ResolvableType.forMethodReturnType(method));
+        if (Objects.isNull(clazz) || clazz.isInterface() || Modifier
+                .isAbstract(clazz.getModifiers()) || ClassUtils
+                .isPrimitiveOrWrapper(clazz) || clazz.getName()
+                .startsWith("java.")) {
+            return;
+        }
+        this.visit(clazz);
+        if (Objects.nonNull(this.graph.get(clazz)) && this.plans.plan(clazz)
+                .isEmpty()) {
+            this.errors.add(MessageFormat.format("{0}返回的{1}没有Permit注解",
+                    method, clazz.getName()));
+        }
+    }
+
+    /**
+     * 方法执行前校验的参数位置、关联服务类和ID构造
+     * @param method
+     * @param permitMethod
+     */
+    private void before(Method method, PermitMethod permitMethod) {
+        int[] arguments = permitMethod.arguments();
+        Class<?>[] parameters = method.getParameterTypes();
+        for (int argument : arguments) {
+            if (argument < 0 || argument >= parameters.length) {
+                this.errors.add(MessageFormat
+                        .format("{0}不存在位置为{1}的参数", method, argument));
+                return;
+            }
+        }
+        PermittableBinding binding;
+        try {
+            binding = this.permittables.binding(permitMethod.before());
+            if (arguments.length != 1 || !ClassUtils
+                    .isAssignable(binding.getIdType(),
+                            parameters[arguments[0]])) {
+                binding.factory(arguments.length);
+            }
+        } catch (RuntimeException e) {
+            this.errors.add(MessageFormat
+                    .format("{0}: {1}", method, e.getMessage()));
+            return;
+        }
+        if (Objects.nonNull(binding.getEntityType())) {
+            this.visit(binding.getEntityType());
+        }
+    }
+
+    /**
+     * 包装类型中的数据类型
+     * @param type
+     * @return
+     */
+    private Class<?> element(ResolvableType type) {
+        while (true) {
+            if (type.isArray()) {
+                type = type.getComponentType();
+                continue;
+            }
+            Class<?> raw = type.resolve();
+            if (Objects.isNull(raw)) {
+                return null;
+            }
+            if (Iterable.class.isAssignableFrom(raw)) {
+                type = type.as(Iterable.class).getGeneric(0);
+            } else if (Stream.class.isAssignableFrom(raw)) {
+                type = type.as(Stream.class).getGeneric(0);
+            } else if (Optional.class.equals(raw) || raw.getName()
+                    .startsWith("reactor.core.publisher.")) {
+                // Optional，Mono，Flux
+                type = type.getGeneric(0);
+            } else {
+                return raw;
+            }
+        }
+    }
+
+    /**
+     * 校验类型并构建权限计划，递归上级资源
+     * @param clazz
+     */
+    private void visit(Class<?> clazz) {
+        if (this.graph.containsKey(clazz)) {
+            return;
+        }
+        Set<Class<?>> superiors = new LinkedHashSet<>();
+        this.graph.put(clazz, superiors);
+        try {
+            this.plans.plan(clazz);
+        } catch (RuntimeException e) {
+            this.errors.add(MessageFormat
+                    .format("{0}: {1}", clazz.getName(), e.getMessage()));
+            this.graph.put(clazz, null);
+            return;
+        }
+        // 属性上权限注解
+        for (Field field : clazz.getDeclaredFields()) {
+            Permit permit = field.getAnnotation(Permit.class);
+            if (Objects.nonNull(permit)) {
+                this.permit(clazz, permit, field.getType(), 1, superiors);
+            }
+        }
+        // 类型上权限注解
+        Permits permits = clazz.getAnnotation(Permits.class);
+        if (Objects.nonNull(permits)) {
+            for (Permit permit : permits.permits()) {
+                this.permit(clazz, permit, permit.names().length == 1 ?
+                        this.type(clazz, permit.names()[0]) :
+                        null, permit.names().length, superiors);
+            }
+        }
+    }
+
+    /**
+     * 校验一个权限注解
+     * @param clazz
+     * @param permit
+     * @param type 单个取值时的属性类型
+     * @param length 取值个数
+     * @param superiors
+     */
+    private void permit(Class<?> clazz, Permit permit, Class<?> type,
+            int length, Set<Class<?>> superiors) {
+        if (permit.root()) {
+            this.roots.add(clazz);
+        }
+        if (!"".equals(permit.association())) {
+            this.association(clazz, permit);
+        }
+        if (!"".equals(permit.dynamic())) {
+            this.dynamic(clazz, permit, type, length, superiors);
+        } else if (!Permittable.class.equals(permit.clazz())) {
+            this.superior(clazz, permit.clazz(), type, length, superiors);
+        } else if (!permit.root() && Objects.nonNull(type)) {
+            // 复杂类型
+            if (type.isInterface() || Object.class.equals(type)) {
+                this.graph.put(clazz, null);
+            } else {
+                superiors.add(type);
+                this.visit(type);
+            }
+        }
+    }
+
+    /**
+     * 已加载的上级资源属性，只用于上级资源，类型需要与关联服务类的数据类型兼容
+     * @param clazz
+     * @param permit
+     */
+    private void association(Class<?> clazz, Permit permit) {
+        if ("".equals(permit.dynamic()) && Permittable.class
+                .equals(permit.clazz())) {
+            this.errors.add(MessageFormat
+                    .format("{0}的association属性{1}只用于上级资源",
+                            clazz.getName(), permit.association()));
+            return;
+        }
+        Class<?> type = this.type(clazz, permit.association());
+        if (Objects.isNull(type) || !"".equals(permit.dynamic())) {
+            // 不存在的属性在构建权限计划时报错
+            return;
+        }
+        Class<?> entity;
+        try {
+            entity = this.permittables.binding(permit.clazz()).getEntityType();
+        } catch (RuntimeException e) {
+            // 关联服务类的错误在校验上级资源时报告
+            return;
+        }
+        if (Objects.nonNull(entity) && !type.isAssignableFrom(entity)
+                && !entity.isAssignableFrom(type)) {
+            this.errors.add(MessageFormat
+                    .format("{0}的association属性{1}的类型{2}不是{3}",
+                            clazz.getName(), permit.association(),
+                            type.getName(), entity.getName()));
+        }
+    }
+
+    private Class<?> type(Class<?> clazz, String name) {
+        try {
+            return clazz.getDeclaredField(name).getType();
+        } catch (NoSuchFieldException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 动态关联，枚举类型时校验所有可能的服务类
+     * @param clazz
+     * @param permit
+     * @param field 属性类型
+     * @param length 取值个数
+     * @param superiors
+     */
+    private void dynamic(Class<?> clazz, Permit permit, Class<?> field,
+            int length, Set<Class<?>> superiors) {
+        Class<?> type = this.type(clazz, permit.dynamic());
+        if (Objects.isNull(type) || !PermitDynamicType.class
+                .isAssignableFrom(type)) {
+            this.errors.add(MessageFormat
+                    .format("{0}的动态关联属性{1}不是PermitDynamicType",
+                            clazz.getName(), permit.dynamic()));
+            return;
+        }
+        if (!type.isEnum()) {
+            this.graph.put(clazz, null);
+            return;
+        }
+        for (Object constant : type.getEnumConstants()) {
+            this.superior(clazz, ((PermitDynamicType) constant).type(), field,
+                    length, superiors);
+        }
+    }
+
+    /**
+     * 关联服务类，校验Bean和ID构造
+     * @param clazz
+     * @param type
+     * @param field 属性类型
+     * @param length 取值个数
+     * @param superiors
+     */
+    private void superior(Class<?> clazz, Class<?> type,
+            Class<?> field, int length, Set<Class<?>> superiors) {
+        PermittableBinding binding;
+        try {
+            binding = this.permittables.binding(type);
+            if (length != 1 || Objects.isNull(field) || !ClassUtils
+                    .isAssignable(binding.getIdType(), field)) {
+                binding.factory(length);
+            }
+        } catch (RuntimeException e) {
+            this.errors.add(MessageFormat
+                    .format("{0}: {1}", clazz.getName(), e.getMessage()));
+            return;
+        }
+        if (Objects.isNull(binding.getEntityType())) {
+            this.graph.put(clazz, null);
+            return;
+        }
+        superiors.add(binding.getEntityType());
+        this.visit(binding.getEntityType());
+    }
+
+    /**
+     * 每个类型都需要能到达根校验，否则校验永远不通过
+     * 无法静态确定上级资源的类型认为可以到达
+     */
+    private void reachable() {
+        Set<Class<?>> reachable = new HashSet<>(this.roots);
+        this.graph.forEach((clazz, superiors) -> {
+            if (Objects.isNull(superiors)) {
+                reachable.add(clazz);
+            }
+        });
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<Class<?>, Set<Class<?>>> entry : this.graph
+                    .entrySet()) {
+                if (!reachable.contains(entry.getKey()) && entry.getValue()
+                        .stream().anyMatch(reachable::contains)) {
+                    reachable.add(entry.getKey());
+                    changed = true;
+                }
+            }
+        }
+        for (Class<?> clazz : this.graph.keySet()) {
+            if (!reachable.contains(clazz) && !this.graph.get(clazz)
+                    .isEmpty()) {
+                List<Class<?>> cycle = this.cycle(clazz);
+                this.errors.add(Objects.isNull(cycle) ?
+                        MessageFormat.format("{0}无法到达根校验", clazz.getName()) :
+                        MessageFormat.format("{0}无法到达根校验，上级资源存在环: {1}",
+                                clazz.getName(), this.path(cycle)));
+            }
+        }
+    }
+
+    /**
+     * 从类型出发的环
+     * @param clazz
+     * @return 不存在时返回null
+     */
+    private List<Class<?>> cycle(Class<?> clazz) {
+        Deque<Class<?>> path = new ArrayDeque<>();
+        Deque<Iterator<Class<?>>> iterators = new ArrayDeque<>();
+        Set<Class<?>> visited = new HashSet<>();
+        path.push(clazz);
+        iterators.push(this.graph.get(clazz).iterator());
+        visited.add(clazz);
+        while (!iterators.isEmpty()) {
+            Iterator<Class<?>> iterator = iterators.peek();
+            if (!iterator.hasNext()) {
+                iterators.pop();
+                path.pop();
+                continue;
+            }
+            Class<?> next = iterator.next();
+            if (next.equals(clazz)) {
+                List<Class<?>> cycle = new ArrayList<>(path);
+                Collections.reverse(cycle);
+                cycle.add(clazz);
+                return cycle;
+            }
+            Set<Class<?>> superiors = this.graph.get(next);
+            if (visited.add(next) && Objects.nonNull(superiors)) {
+                path.push(next);
+                iterators.push(superiors.iterator());
+            }
+        }
+        return null;
+    }
+
+    private String path(List<Class<?>> cycle) {
+        StringJoiner joiner = new StringJoiner(" -> ");
+        for (Class<?> clazz : cycle) {
+            joiner.add(clazz.getSimpleName());
+        }
+        return joiner.toString();
+    }
+}
@@ -15,6 +15,9 @@ package com.wenyu7980.security.core;
  * limitations under the License.
  */
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -27,6 +30,7 @@ public interface Permittable<T, ID> {
      * 类型
      * @return
      */
+    @SuppressWarnings("rawtypes")
     default Class<? extends Permittable> type() {
         return this.getClass();
     }
@@ -37,4 +41,19 @@ public interface Permittable<T, ID> {
      * @return
      */
     Optional<T> findPermitById(ID id);
+
+    /**
+     * 通过id批量获取数据
+     * 批量校验时每一层同一类型的上级资源只调用一次，建议实现为一次IN查询
+     * 默认逐个调用findPermitById
+     * @param ids
+     * @return 存在的数据，key为id
+     */
+    default Map<ID, T> findPermitByIds(Collection<ID> ids) {
+        Map<ID, T> map = new LinkedHashMap<>();
+        for (ID id : ids) {
+            this.findPermitById(id).ifPresent(t -> map.put(id, t));
+        }
+        return map;
+    }
 }
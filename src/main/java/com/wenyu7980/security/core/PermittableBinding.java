@@ -0,0 +1,308 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 上级资源服务类绑定
+ * 服务类对应的Bean，数据类型，ID类型和各参数个数下的ID构造
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public final class PermittableBinding {
+    /** 数值类型按拓宽转换的顺序 */
+    private static final List<Class<?>> NUMBERS = Arrays
+            .asList(Byte.class, Short.class, Integer.class, Long.class,
+                    Float.class, Double.class);
+    /** 关联数据查询服务类 */
+    private final Class<?> type;
+    /** 数据访问bean，ID由factories构造为idType */
+    private final Permittable<Object, Object> permittable;
+    /** 数据类型 */
+    private final Class<?> entityType;
+    /** 查询ID类型 */
+    private final Class<?> idType;
+    /** 按参数个数索引的ID构造 */
+    private final PermitIdFactory[] factories;
+    /** 查询保护，null表示不保护 */
+    private final PermitGuard guard;
+
+    @SuppressWarnings("unchecked")
+    PermittableBinding(Class<?> type, Permittable<?, ?> permittable,
+            PermitGeneratedPlans generated, PermitGuard guard) {
+        this.type = type;
+        this.permittable = (Permittable<Object, Object>) permittable;
+        this.guard = guard;
+        ResolvableType resolvable = ResolvableType.forClass(type)
+                .as(Permittable.class);
+        this.entityType = resolvable.resolveGeneric(0);
+        // 第二个泛型类型参数为查询ID类型
+        Class<?> id = resolvable.resolveGeneric(1);
+        this.idType = Objects.isNull(id) ? Object.class : id;
+        this.factories = this.factories(generated);
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public Permittable<Object, Object> getPermittable() {
+        return permittable;
+    }
+
+    /**
+     * 数据类型，无法解析泛型时为null
+     * @return
+     */
+    public Class<?> getEntityType() {
+        return entityType;
+    }
+
+    public Class<?> getIdType() {
+        return idType;
+    }
+
+    /**
+     * 参数个数对应的ID构造
+     * @param length
+     * @return
+     */
+    public PermitIdFactory factory(int length) {
+        if (length < this.factories.length && Objects
+                .nonNull(this.factories[length])) {
+            return this.factories[length];
+        }
+        throw new RuntimeException(MessageFormat
+                .format("{0}构造函数的参数与PermitSuperiors注解中的{1}的names长度不一致",
+                        this.idType.getName(), this.type.getName()));
+    }
+
+    /**
+     * 构造查询ID
+     * @param values
+     * @return
+     */
+    public Object id(Object[] values) {
+        return this.factory(values.length).create(values);
+    }
+
+    /**
+     * 由单一属性值构造查询ID
+     * 属性值已经是ID类型时直接使用，不创建参数数组
+     * @param value
+     * @return
+     */
+    public Object singleId(Object value) {
+        if (this.idType.isInstance(value)) {
+            return value;
+        }
+        return this.factory(1).create(new Object[] { value });
+    }
+
+    /**
+     * 查询上级资源
+     * @param id
+     * @return
+     */
+    public Optional<?> find(Object id) {
+        if (Objects.isNull(this.guard)) {
+            return this.permittable.findPermitById(id);
+        }
+        return this.guard.call(this.type,
+                () -> this.permittable.findPermitById(id), Optional.empty());
+    }
+
+    /**
+     * 批量查询上级资源
+     * @param ids
+     * @return
+     */
+    public Map<?, ?> findAll(Collection<?> ids) {
+        if (Objects.isNull(this.guard)) {
+            return this.permittable
+                    .findPermitByIds(Collections.unmodifiableCollection(ids));
+        }
+        return this.guard.call(this.type, () -> this.permittable
+                        .findPermitByIds(Collections.unmodifiableCollection(ids)),
+                Collections.emptyMap());
+    }
+
+    private PermitIdFactory[] factories(PermitGeneratedPlans generated) {
+        List<List<Constructor<?>>> arities = new ArrayList<>();
+        for (Constructor<?> constructor : this.idType.getConstructors()) {
+            int count = constructor.getParameterCount();
+            while (arities.size() <= count) {
+                arities.add(new ArrayList<>());
+            }
+            arities.get(count).add(constructor);
+        }
+        PermitIdFactory[] factories = new PermitIdFactory[Math
+                .max(arities.size(), 2)];
+        for (int i = 1; i < arities.size(); i++) {
+            if (!arities.get(i).isEmpty()) {
+                factories[i] = this.constructor(
+                        arities.get(i).toArray(new Constructor<?>[0]),
+                        generated);
+            }
+        }
+        // 单一属性值已经是ID类型时直接使用
+        PermitIdFactory single = factories[1];
+        factories[1] = values -> {
+            if (this.idType.isInstance(values[0]) || Objects.isNull(single)) {
+                return values[0];
+            }
+            return single.create(values);
+        };
+        return factories;
+    }
+
+    /**
+     * 通过构造函数构造ID
+     * 同一参数个数存在多个构造函数时，使用参数类型匹配的第一个；
+     * 构造函数存在编译期生成的构造时优先使用；
+     * 数值属性值先拓宽为参数类型，如Integer属性值可以构造Long类型的ID
+     * @param constructors
+     * @param generated
+     * @return
+     */
+    private PermitIdFactory constructor(Constructor<?>[] constructors,
+            PermitGeneratedPlans generated) {
+        PermitIdFactory[] creators = new PermitIdFactory[constructors.length];
+        for (int i = 0; i < constructors.length; i++) {
+            Class<?>[] types = constructors[i].getParameterTypes();
+            PermitIdFactory factory = generated.id(this.idType, types);
+            creators[i] = this.widening(types, Objects.nonNull(factory) ?
+                    factory :
+                    this.constructor(constructors[i]));
+        }
+        if (constructors.length == 1) {
+            return creators[0];
+        }
+        return values -> {
+            for (int i = 0; i < constructors.length; i++) {
+                if (this.matches(constructors[i], values)) {
+                    return creators[i].create(values);
+                }
+            }
+            throw new RuntimeException(MessageFormat
+                    .format("{0}没有与{1}的属性值类型匹配的构造函数",
+                            this.idType.getName(), this.type.getName()));
+        };
+    }
+
+    /**
+     * 通过反射调用构造函数
+     * @param constructor
+     * @return
+     */
+    private PermitIdFactory constructor(Constructor<?> constructor) {
+        return values -> {
+            try {
+                return constructor.newInstance(values);
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new RuntimeException(e);
+            } catch (InvocationTargetException e) {
+                throw new RuntimeException(e.getTargetException());
+            }
+        };
+    }
+
+    /**
+     * 构造前拓宽数值属性值，有拓宽时复制参数数组，不修改调用方的数组
+     * @param types 参数类型
+     * @param factory
+     * @return 没有数值参数时返回factory
+     */
+    private PermitIdFactory widening(Class<?>[] types,
+            PermitIdFactory factory) {
+        boolean numeric = false;
+        for (Class<?> type : types) {
+            numeric |= NUMBERS
+                    .contains(ClassUtils.resolvePrimitiveIfNecessary(type));
+        }
+        if (!numeric) {
+            return factory;
+        }
+        return values -> {
+            Object[] arguments = values;
+            for (int i = 0; i < types.length; i++) {
+                Object value = widen(types[i], values[i]);
+                if (value != values[i]) {
+                    if (arguments == values) {
+                        arguments = values.clone();
+                    }
+                    arguments[i] = value;
+                }
+            }
+            return factory.create(arguments);
+        };
+    }
+
+    private boolean matches(Constructor<?> constructor, Object[] values) {
+        Class<?>[] types = constructor.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (!ClassUtils
+                    .isAssignableValue(types[i], widen(types[i], values[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 数值按基本类型的拓宽转换为参数类型，与反射调用构造函数时的转换一致
+     * @param type 参数类型，基本类型或者包装类型
+     * @param value
+     * @return 不能拓宽时返回原值
+     */
+    private static Object widen(Class<?> type, Object value) {
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        int to = NUMBERS.indexOf(ClassUtils.resolvePrimitiveIfNecessary(type));
+        int from = NUMBERS.indexOf(value.getClass());
+        if (from < 0 || to <= from) {
+            return value;
+        }
+        Number number = (Number) value;
+        switch (to) {
+            case 1:
+                return number.shortValue();
+            case 2:
+                return number.intValue();
+            case 3:
+                return number.longValue();
+            case 4:
+                return number.floatValue();
+            default:
+                return number.doubleValue();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.util.ClassUtils;
+
+import java.text.MessageFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+/**
+ * 上级资源服务类注册表
+ * 每个关联数据查询服务类只查找一次Bean和ID构造
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class PermittableRegistry implements SmartInitializingSingleton {
+    /** 数据访问bean */
+    private final ObjectProvider<Permittable<?, ?>> provider;
+    /** 类权限计划 */
+    private final PermitPlanRegistry plans;
+    /** 绑定缓存 */
+    private final ConcurrentMap<Class<?>, PermittableBinding> bindings = new ConcurrentHashMap<>();
+    private volatile List<Permittable<?, ?>> permittables;
+    /** 查询保护，null表示不保护 */
+    private PermitGuard guard;
+
+    public PermittableRegistry(ObjectProvider<Permittable<?, ?>> provider,
+            PermitPlanRegistry plans) {
+        this.provider = provider;
+        this.plans = plans;
+    }
+
+    public void setGuard(PermitGuard guard) {
+        this.guard = guard;
+    }
+
+    /**
+     * 获取服务类的绑定
+     * @param clazz
+     * @return
+     */
+    public PermittableBinding binding(Class<?> clazz) {
+        PermittableBinding binding = this.bindings.get(clazz);
+        if (Objects.nonNull(binding)) {
+            return binding;
+        }
+        return this.bindings.computeIfAbsent(clazz, this::bind);
+    }
+
+    /**
+     * 所有数据访问bean
+     * @return
+     */
+    public List<Permittable<?, ?>> permittables() {
+        List<Permittable<?, ?>> permittables = this.permittables;
+        if (Objects.isNull(permittables)) {
+            synchronized (this) {
+                if (Objects.isNull(this.permittables)) {
+                    this.permittables = this.provider.stream()
+                            .collect(Collectors.toList());
+                }
+                permittables = this.permittables;
+            }
+        }
+        return permittables;
+    }
+
+    private PermittableBinding bind(Class<?> clazz) {
+        Permittable<?, ?> permittable = this.permittables().stream()
+                .filter(permit -> clazz.isAssignableFrom(permit.type()))
+                .findFirst().orElseThrow(() -> new RuntimeException(
+                        MessageFormat.format("{0}没有Permittable相应的实现",
+                                clazz.getName())));
+        return new PermittableBinding(clazz, permittable,
+                this.plans.generated(), this.guard);
+    }
+
+    /**
+     * 所有单例初始化后，预先构建上级资源数据类型的权限计划
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (Permittable<?, ?> permittable : this.permittables()) {
+            PermittableBinding binding = this
+                    .binding(ClassUtils.getUserClass(permittable.type()));
+            if (Objects.nonNull(binding.getEntityType())) {
+                this.plans.plan(binding.getEntityType());
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * 可一次加载用户全部根资源的PermitConfig
+ * 开启data-permit.root-set.enabled后，每个用户在一次请求或者ttl内只加载一次，
+ * 根校验通过集合判断，不再逐个调用checkPermit
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public interface RootSetPermitConfig extends CacheablePermitConfig {
+    /**
+     * 用户可访问的根资源
+     * @param principal 当前用户
+     * @return key为Permit.type，value为null表示全部可访问；不存在的type仍然调用checkPermit
+     */
+    Map<String, ? extends Collection<?>> roots(Object principal);
+}
@@ -0,0 +1,364 @@
+package com.wenyu7980.security.jpa;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.annotation.Permits;
+import com.wenyu7980.security.core.Permittable;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.JpaEntityInformationSupport;
+import org.springframework.util.ReflectionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.From;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.JoinType;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Selection;
+import javax.persistence.metamodel.Attribute;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Metamodel;
+import java.lang.reflect.Field;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 只查询权限属性的JPA上级资源
+ * 按实体的Permit注解、Permits的names以及dynamic属性确定需要的列，
+ * 通过Tuple查询这些列和ID，写入新建的实体对象，其他属性保持默认值；
+ * 关联实体的属性通过left join只查询关联实体的ID和它的权限属性，构造同样只包含这些属性的关联实体；
+ * 权限属性需要是持久化属性
+ * 返回的实体只用于权限校验，不是持久化对象
+ * <pre>
+ * &#64;Component
+ * public class OrderPermittable extends JpaPermittable&lt;Order, String&gt; {
+ *     public OrderPermittable(EntityManager entityManager) {
+ *         super(entityManager, Order.class);
+ *     }
+ * }
+ * </pre>
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public abstract class JpaPermittable<T, ID> implements Permittable<T, ID> {
+    private final EntityManager entityManager;
+    private final Class<T> domainType;
+    private final JpaEntityInformation<T, ?> information;
+    /** ID属性名 */
+    private final List<String> ids = new ArrayList<>();
+    /** 查询的权限属性 */
+    private final Projection projection;
+
+    protected JpaPermittable(EntityManager entityManager,
+            Class<T> domainType) {
+        this.entityManager = entityManager;
+        this.domainType = domainType;
+        this.information = JpaEntityInformationSupport
+                .getEntityInformation(domainType, entityManager);
+        this.information.getIdAttributeNames().forEach(this.ids::add);
+        Set<Class<?>> path = new HashSet<>();
+        path.add(domainType);
+        this.projection = this.projection(entityManager.getMetamodel(),
+                domainType, null, path);
+    }
+
+    @Override
+    public Optional<T> findPermitById(ID id) {
+        CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(this.domainType);
+        query.multiselect(this.selections(root));
+        query.where(this.id(builder, root, id));
+        List<Tuple> tuples = this.entityManager.createQuery(query)
+                .getResultList();
+        return tuples.isEmpty() ?
+                Optional.empty() :
+                Optional.of(this.projection(tuples.get(0)));
+    }
+
+    /**
+     * 批量查询
+     * 单一ID属性时一次IN查询，IdClass复合ID时逐个查询
+     * @param ids
+     * @return
+     */
+    @Override
+    public Map<ID, T> findPermitByIds(Collection<ID> ids) {
+        if (this.information.hasCompositeId() || ids.isEmpty()) {
+            return Permittable.super.findPermitByIds(ids);
+        }
+        CriteriaBuilder builder = this.entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = builder.createTupleQuery();
+        Root<T> root = query.from(this.domainType);
+        query.multiselect(this.selections(root));
+        query.where(root.get(this.ids.get(0)).in(ids));
+        Map<ID, T> map = new LinkedHashMap<>();
+        for (Tuple tuple : this.entityManager.createQuery(query)
+                .getResultList()) {
+            @SuppressWarnings("unchecked")
+            ID id = (ID) tuple.get(0);
+            map.put(id, this.projection(tuple));
+        }
+        return map;
+    }
+
+    /**
+     * 权限属性名
+     * 属性上的Permit及其dynamic，类上Permits的names及其dynamic
+     * @param clazz
+     * @return
+     */
+    private Set<String> names(Class<?> clazz) {
+        Set<String> names = new LinkedHashSet<>();
+        for (Field field : clazz.getDeclaredFields()) {
+            Permit permit = field.getAnnotation(Permit.class);
+            if (Objects.nonNull(permit)) {
+                names.add(field.getName());
+                this.dynamic(permit, names);
+            }
+        }
+        Permits permits = clazz.getAnnotation(Permits.class);
+        if (Objects.nonNull(permits)) {
+            for (Permit permit : permits.permits()) {
+                for (String name : permit.names()) {
+                    names.add(name);
+                }
+                this.dynamic(permit, names);
+            }
+        }
+        return names;
+    }
+
+    private void dynamic(Permit permit, Set<String> names) {
+        if (!"".equals(permit.dynamic())) {
+            names.add(permit.dynamic());
+        }
+    }
+
+    /**
+     * 实体的权限属性，关联实体展开为它的ID和权限属性
+     * @param metamodel
+     * @param type
+     * @param id 关联实体的ID属性，查询的实体为null
+     * @param path 展开中的实体，关联实体成环时只查询ID
+     * @return
+     */
+    private Projection projection(Metamodel metamodel, Class<?> type,
+            Field id, Set<Class<?>> path) {
+        EntityType<?> model = metamodel.entity(type);
+        Projection projection = new Projection(type, id);
+        for (String name : this.names(type)) {
+            Field field;
+            try {
+                field = type.getDeclaredField(name);
+            } catch (NoSuchFieldException e) {
+                throw new RuntimeException(MessageFormat
+                        .format("{0}中不存在属性{1}", type.getName(), name), e);
+            }
+            Attribute<?, ?> attribute;
+            try {
+                attribute = model.getAttribute(name);
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException(MessageFormat
+                        .format("{0}.{1}不是持久化属性，JpaPermittable无法查询",
+                                type.getName(), name), e);
+            }
+            field.setAccessible(true);
+            Projection child = null;
+            if (attribute.isAssociation()) {
+                child = this.association(metamodel, attribute.getJavaType(),
+                        path);
+            }
+            projection.add(field, child);
+        }
+        return projection;
+    }
+
+    /**
+     * 关联实体的查询
+     * 复合ID的关联实体查询整个关联实体
+     * @param metamodel
+     * @param type
+     * @param path
+     * @return
+     */
+    private Projection association(Metamodel metamodel, Class<?> type,
+            Set<Class<?>> path) {
+        EntityType<?> model = metamodel.entity(type);
+        if (!model.hasSingleIdAttribute()) {
+            return Projection.ENTITY;
+        }
+        Attribute<?, ?> attribute = model.getId(model.getIdType().getJavaType());
+        Field id = ReflectionUtils.findField(type, attribute.getName());
+        if (Objects.isNull(id)) {
+            return Projection.ENTITY;
+        }
+        id.setAccessible(true);
+        if (!path.add(type)) {
+            return new Projection(type, id);
+        }
+        try {
+            return this.projection(metamodel, type, id, path);
+        } finally {
+            path.remove(type);
+        }
+    }
+
+    /**
+     * 查询的列，第一列为ID(复合ID时为第一个ID属性)，之后是权限属性
+     * @param root
+     * @return
+     */
+    private List<Selection<?>> selections(Root<T> root) {
+        List<Selection<?>> selections = new ArrayList<>(
+                this.projection.width + 1);
+        selections.add(root.get(this.ids.get(0)));
+        this.select(root, this.projection, selections);
+        return selections;
+    }
+
+    /**
+     * 权限属性的列，关联实体为ID列和关联实体的权限属性列
+     * @param from
+     * @param projection
+     * @param selections
+     */
+    private void select(From<?, ?> from, Projection projection,
+            List<Selection<?>> selections) {
+        for (int i = 0; i < projection.fields.size(); i++) {
+            String name = projection.fields.get(i).getName();
+            Projection child = projection.children.get(i);
+            if (Objects.isNull(child)) {
+                selections.add(from.get(name));
+            } else if (child == Projection.ENTITY) {
+                selections.add(from.join(name, JoinType.LEFT));
+            } else {
+                Join<?, ?> join = from.join(name, JoinType.LEFT);
+                selections.add(join.get(child.id.getName()));
+                this.select(join, child, selections);
+            }
+        }
+    }
+
+    /**
+     * ID条件
+     * @param builder
+     * @param root
+     * @param id
+     * @return
+     */
+    private Predicate id(CriteriaBuilder builder, Root<T> root, ID id) {
+        if (!this.information.hasCompositeId()) {
+            return builder.equal(root.get(this.ids.get(0)), id);
+        }
+        List<Predicate> predicates = new ArrayList<>(this.ids.size());
+        for (String name : this.ids) {
+            predicates.add(builder.equal(root.get(name),
+                    this.information.getCompositeIdAttributeValue(id, name)));
+        }
+        return builder.and(predicates.toArray(new Predicate[0]));
+    }
+
+    /**
+     * 由查询结果构造只包含权限属性的实体
+     * @param tuple
+     * @return
+     */
+    private T projection(Tuple tuple) {
+        T entity = BeanUtils.instantiateClass(this.domainType);
+        try {
+            this.read(tuple, 1, entity, this.projection);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        }
+        return entity;
+    }
+
+    /**
+     * 写入权限属性，关联实体的ID为null时关联实体为null
+     * @param tuple
+     * @param index 开始的列
+     * @param target
+     * @param projection
+     * @return 下一列
+     * @throws IllegalAccessException
+     */
+    private int read(Tuple tuple, int index, Object target,
+            Projection projection) throws IllegalAccessException {
+        for (int i = 0; i < projection.fields.size(); i++) {
+            Field field = projection.fields.get(i);
+            Projection child = projection.children.get(i);
+            Object value = tuple.get(index++);
+            if (Objects.nonNull(child) && child != Projection.ENTITY) {
+                if (Objects.isNull(value)) {
+                    index += child.width;
+                } else {
+                    Object association = BeanUtils
+                            .instantiateClass(child.type);
+                    child.id.set(association, value);
+                    index = this.read(tuple, index, association, child);
+                    value = association;
+                }
+            }
+            field.set(target, value);
+        }
+        return index;
+    }
+
+    /**
+     * 查询的实体或者关联实体的权限属性
+     */
+    private static final class Projection {
+        /** 查询整个关联实体 */
+        private static final Projection ENTITY = new Projection(null, null);
+        private final Class<?> type;
+        /** 关联实体的ID属性 */
+        private final Field id;
+        /** 权限属性 */
+        private final List<Field> fields = new ArrayList<>();
+        /** 与fields对应，null表示不是关联实体 */
+        private final List<Projection> children = new ArrayList<>();
+        /** 权限属性的列数，不包括ID列 */
+        private int width;
+
+        private Projection(Class<?> type, Field id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        private void add(Field field, Projection child) {
+            this.fields.add(field);
+            this.children.add(child);
+            this.width += Objects.isNull(child) || child == ENTITY ?
+                    1 :
+                    child.width + 1;
+        }
+    }
+}
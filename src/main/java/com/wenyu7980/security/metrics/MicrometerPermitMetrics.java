@@ -0,0 +1,161 @@
+package com.wenyu7980.security.metrics;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.cache.PermitDecisionCache;
+import io.micrometer.core.instrument.*;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer权限校验指标
+ * <ul>
+ *     <li>data.permit.check 校验耗时，method，entity，outcome</li>
+ *     <li>data.permit.lookups 一次校验的上级资源查询次数，method，entity</li>
+ *     <li>data.permit.depth 一次校验的上级资源最大深度，method，entity，按2的幂分桶到最大深度</li>
+ *     <li>data.permit.lookup 上级资源查询耗时，permittable</li>
+ *     <li>data.permit.root 根校验次数，type，outcome</li>
+ *     <li>data.permit.cache.hits/misses 根校验结果缓存命中</li>
+ * </ul>
+ * 指标按标签缓存，记录时不再创建；查询次数和深度未统计时不记录
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class MicrometerPermitMetrics implements PermitMetrics {
+    private static final String NONE = "none";
+    private final MeterRegistry registry;
+    /** 方法 -> 数据类型 -> 指标 */
+    private final Map<Object, Map<Class<?>, CheckMeters>> checks = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Timer> lookups = new ConcurrentHashMap<>();
+    /** Permit.type -> 通过，不通过 */
+    private final Map<String, Counter[]> roots = new ConcurrentHashMap<>();
+    /** 深度分桶 */
+    private final long[] depths;
+    private final long maxDepth;
+
+    public MicrometerPermitMetrics(MeterRegistry registry,
+            PermitDecisionCache cache, int maxDepth) {
+        this.registry = registry;
+        this.maxDepth = Math.max(maxDepth, 1);
+        List<Long> depths = new ArrayList<>();
+        for (long depth = 1; depth < this.maxDepth; depth <<= 1) {
+            depths.add(depth);
+        }
+        depths.add(this.maxDepth);
+        this.depths = depths.stream().mapToLong(Long::longValue).toArray();
+        if (Objects.nonNull(cache)) {
+            FunctionCounter.builder("data.permit.cache.hits", cache,
+                    c -> c.stats().getHits()).register(registry);
+            FunctionCounter.builder("data.permit.cache.misses", cache,
+                    c -> c.stats().getMisses()).register(registry);
+            Gauge.builder("data.permit.cache.size", cache,
+                    c -> c.stats().getSize()).register(registry);
+        }
+    }
+
+    @Override
+    public boolean enabled() {
+        return true;
+    }
+
+    @Override
+    public void check(Method method, Class<?> entity, boolean granted,
+            long nanos, int lookups, int depth) {
+        Object key = Objects.isNull(method) ? NONE : method;
+        Map<Class<?>, CheckMeters> entities = this.checks.get(key);
+        if (Objects.isNull(entities)) {
+            entities = this.checks
+                    .computeIfAbsent(key, m -> new ConcurrentHashMap<>());
+        }
+        Class<?> type = Objects.isNull(entity) ? Void.class : entity;
+        CheckMeters meters = entities.get(type);
+        if (Objects.isNull(meters)) {
+            meters = entities.computeIfAbsent(type,
+                    e -> new CheckMeters(method, e));
+        }
+        (granted ? meters.granted : meters.denied)
+                .record(nanos, TimeUnit.NANOSECONDS);
+        if (lookups != UNKNOWN) {
+            meters.lookups.record(lookups);
+        }
+        if (depth != UNKNOWN) {
+            meters.depth.record(depth);
+        }
+    }
+
+    @Override
+    public void lookup(Class<?> type, long nanos) {
+        Timer timer = this.lookups.get(type);
+        if (Objects.isNull(timer)) {
+            timer = this.lookups.computeIfAbsent(type,
+                    t -> Timer.builder("data.permit.lookup")
+                            .tag("permittable", ClassUtils.getShortName(t))
+                            .register(this.registry));
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void root(Permit permit, boolean granted) {
+        Counter[] counters = this.roots.get(permit.type());
+        if (Objects.isNull(counters)) {
+            counters = this.roots.computeIfAbsent(permit.type(),
+                    type -> new Counter[] { this.root(type, "granted"),
+                            this.root(type, "denied") });
+        }
+        counters[granted ? 0 : 1].increment();
+    }
+
+    private Counter root(String type, String outcome) {
+        return Counter.builder("data.permit.root").tag("type", type)
+                .tag("outcome", outcome).register(this.registry);
+    }
+
+    /**
+     * 一个方法和数据类型的指标
+     */
+    private final class CheckMeters {
+        private final Timer granted;
+        private final Timer denied;
+        private final DistributionSummary lookups;
+        private final DistributionSummary depth;
+
+        private CheckMeters(Method method, Class<?> entity) {
+            Tags tags = Tags.of("method", Objects.isNull(method) ?
+                            NONE :
+                            ClassUtils.getShortName(method.getDeclaringClass())
+                                    + "." + method.getName(), "entity",
+                    ClassUtils.getShortName(entity));
+            this.granted = Timer.builder("data.permit.check").tags(tags)
+                    .tag("outcome", "granted").register(registry);
+            this.denied = Timer.builder("data.permit.check").tags(tags)
+                    .tag("outcome", "denied").register(registry);
+            this.lookups = DistributionSummary.builder("data.permit.lookups")
+                    .tags(tags).register(registry);
+            this.depth = DistributionSummary.builder("data.permit.depth")
+                    .tags(tags).sla(depths).maximumExpectedValue(maxDepth)
+                    .register(registry);
+        }
+    }
+}
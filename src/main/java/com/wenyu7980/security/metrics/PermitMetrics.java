@@ -0,0 +1,71 @@
+package com.wenyu7980.security.metrics;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+
+import java.lang.reflect.Method;
+
+/**
+ * 权限校验指标
+ * 默认NOOP，调用方在enabled为false时不计时，不产生额外对象
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public interface PermitMetrics {
+    /** 不记录 */
+    PermitMetrics NOOP = new PermitMetrics() {
+    };
+    /** 查询次数或者深度未统计 */
+    int UNKNOWN = -1;
+
+    /**
+     * 是否记录
+     * @return
+     */
+    default boolean enabled() {
+        return false;
+    }
+
+    /**
+     * 一次校验
+     * @param method PermitMethod方法，直接调用时为null
+     * @param entity 被校验数据类型
+     * @param granted 是否通过
+     * @param nanos 耗时
+     * @param lookups 上级资源查询次数，未统计时为{@link #UNKNOWN}
+     * @param depth 上级资源最大深度，未统计时为{@link #UNKNOWN}
+     */
+    default void check(Method method, Class<?> entity, boolean granted,
+            long nanos, int lookups, int depth) {
+    }
+
+    /**
+     * 一次上级资源查询
+     * @param type 关联数据查询服务类
+     * @param nanos 耗时
+     */
+    default void lookup(Class<?> type, long nanos) {
+    }
+
+    /**
+     * 一次根校验
+     * @param permit
+     * @param granted
+     */
+    default void root(Permit permit, boolean granted) {
+    }
+}
@@ -0,0 +1,45 @@
+package com.wenyu7980.security.metrics;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.cache.PermitDecisionCache;
+import com.wenyu7980.security.core.PermitProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 权限校验指标配置
+ * micrometer存在且开启data-permit.metrics.enabled时生效
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+@Configuration
+@ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+@ConditionalOnProperty(prefix = "data-permit.metrics", name = "enabled", havingValue = "true")
+public class PermitMetricsConfiguration {
+
+    @Bean
+    public MicrometerPermitMetrics micrometerPermitMetrics(
+            MeterRegistry registry, ObjectProvider<PermitDecisionCache> cache,
+            PermitProperties properties) {
+        return new MicrometerPermitMetrics(registry, cache.getIfAvailable(),
+                properties.getTraversal().getMaxDepth());
+    }
+}
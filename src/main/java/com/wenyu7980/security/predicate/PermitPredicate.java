@@ -0,0 +1,335 @@
+package com.wenyu7980.security.predicate;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.util.*;
+
+/**
+ * 权限条件树
+ * 由{@link PermitPredicateBuilder}按数据类型的Permit注解生成，
+ * 属性名为数据类型中的属性，通过{@link Visitor}转换为具体的查询条件
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public abstract class PermitPredicate {
+    /** 全部通过 */
+    public static final PermitPredicate TRUE = new Constant(true);
+    /** 全部不通过 */
+    public static final PermitPredicate FALSE = new Constant(false);
+
+    private PermitPredicate() {
+    }
+
+    /**
+     * 转换
+     * @param visitor
+     * @param <R>
+     * @return
+     */
+    public abstract <R> R accept(Visitor<R> visitor);
+
+    /**
+     * 属性值非空
+     * @param field
+     * @return
+     */
+    public static PermitPredicate notNull(String field) {
+        return new NotNull(field);
+    }
+
+    /**
+     * 属性值在集合中
+     * @param field
+     * @param values null表示全部通过
+     * @return
+     */
+    public static PermitPredicate in(String field, Collection<?> values) {
+        if (Objects.isNull(values)) {
+            return new NotNull(field);
+        }
+        if (values.isEmpty()) {
+            return FALSE;
+        }
+        return new In(field, values);
+    }
+
+    /**
+     * 属性值相等
+     * @param field
+     * @param value
+     * @return
+     */
+    public static PermitPredicate equal(String field, Object value) {
+        return new Equal(field, value);
+    }
+
+    /**
+     * 任意一个通过
+     * @param predicates
+     * @return
+     */
+    public static PermitPredicate or(List<PermitPredicate> predicates) {
+        List<PermitPredicate> list = new ArrayList<>();
+        for (PermitPredicate predicate : predicates) {
+            if (predicate == TRUE) {
+                return TRUE;
+            }
+            if (predicate != FALSE) {
+                list.add(predicate);
+            }
+        }
+        if (list.isEmpty()) {
+            return FALSE;
+        }
+        return list.size() == 1 ? list.get(0) : new Or(list);
+    }
+
+    /**
+     * 全部通过
+     * @param predicates
+     * @return
+     */
+    public static PermitPredicate and(List<PermitPredicate> predicates) {
+        List<PermitPredicate> list = new ArrayList<>();
+        for (PermitPredicate predicate : predicates) {
+            if (predicate == FALSE) {
+                return FALSE;
+            }
+            if (predicate != TRUE) {
+                list.add(predicate);
+            }
+        }
+        if (list.isEmpty()) {
+            return TRUE;
+        }
+        return list.size() == 1 ? list.get(0) : new And(list);
+    }
+
+    /**
+     * 复杂类型属性满足条件
+     * @param field
+     * @param predicate 相对于属性值的条件
+     * @return
+     */
+    public static PermitPredicate nested(String field,
+            PermitPredicate predicate) {
+        if (predicate == FALSE) {
+            return FALSE;
+        }
+        if (predicate == TRUE) {
+            return new NotNull(field);
+        }
+        return new Nested(field, predicate);
+    }
+
+    /**
+     * 属性值对应的上级资源存在且满足条件
+     * @param fields 属性，与上级资源的ID一一对应
+     * @param type 上级资源数据类型
+     * @param predicate 相对于上级资源的条件
+     * @return
+     */
+    public static PermitPredicate superior(String[] fields, Class<?> type,
+            PermitPredicate predicate) {
+        if (predicate == FALSE) {
+            return FALSE;
+        }
+        return new Superior(fields, type, predicate);
+    }
+
+    /**
+     * 条件转换
+     * @param <R>
+     */
+    public interface Visitor<R> {
+        R constant(boolean value);
+
+        R notNull(String field);
+
+        R in(String field, Collection<?> values);
+
+        R equal(String field, Object value);
+
+        R or(List<PermitPredicate> predicates);
+
+        R and(List<PermitPredicate> predicates);
+
+        R nested(String field, PermitPredicate predicate);
+
+        R superior(String[] fields, Class<?> type, PermitPredicate predicate);
+    }
+
+    private static final class Constant extends PermitPredicate {
+        private final boolean value;
+
+        private Constant(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.constant(this.value);
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(this.value);
+        }
+    }
+
+    private static final class NotNull extends PermitPredicate {
+        private final String field;
+
+        private NotNull(String field) {
+            this.field = field;
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.notNull(this.field);
+        }
+
+        @Override
+        public String toString() {
+            return this.field + " is not null";
+        }
+    }
+
+    private static final class In extends PermitPredicate {
+        private final String field;
+        private final Collection<?> values;
+
+        private In(String field, Collection<?> values) {
+            this.field = field;
+            this.values = values;
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.in(this.field, this.values);
+        }
+
+        @Override
+        public String toString() {
+            return this.field + " in " + this.values;
+        }
+    }
+
+    private static final class Equal extends PermitPredicate {
+        private final String field;
+        private final Object value;
+
+        private Equal(String field, Object value) {
+            this.field = field;
+            this.value = value;
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.equal(this.field, this.value);
+        }
+
+        @Override
+        public String toString() {
+            return this.field + " = " + this.value;
+        }
+    }
+
+    private static final class Or extends PermitPredicate {
+        private final List<PermitPredicate> predicates;
+
+        private Or(List<PermitPredicate> predicates) {
+            this.predicates = Collections.unmodifiableList(predicates);
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.or(this.predicates);
+        }
+
+        @Override
+        public String toString() {
+            StringJoiner joiner = new StringJoiner(" or ", "(", ")");
+            this.predicates.forEach(p -> joiner.add(p.toString()));
+            return joiner.toString();
+        }
+    }
+
+    private static final class And extends PermitPredicate {
+        private final List<PermitPredicate> predicates;
+
+        private And(List<PermitPredicate> predicates) {
+            this.predicates = Collections.unmodifiableList(predicates);
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.and(this.predicates);
+        }
+
+        @Override
+        public String toString() {
+            StringJoiner joiner = new StringJoiner(" and ", "(", ")");
+            this.predicates.forEach(p -> joiner.add(p.toString()));
+            return joiner.toString();
+        }
+    }
+
+    private static final class Nested extends PermitPredicate {
+        private final String field;
+        private final PermitPredicate predicate;
+
+        private Nested(String field, PermitPredicate predicate) {
+            this.field = field;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.nested(this.field, this.predicate);
+        }
+
+        @Override
+        public String toString() {
+            return this.field + ".(" + this.predicate + ")";
+        }
+    }
+
+    private static final class Superior extends PermitPredicate {
+        private final String[] fields;
+        private final Class<?> type;
+        private final PermitPredicate predicate;
+
+        private Superior(String[] fields, Class<?> type,
+                PermitPredicate predicate) {
+            this.fields = fields;
+            this.type = type;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> visitor) {
+            return visitor.superior(this.fields.clone(), this.type,
+                    this.predicate);
+        }
+
+        @Override
+        public String toString() {
+            return Arrays.toString(this.fields) + " -> " + this.type
+                    .getSimpleName() + "(" + this.predicate + ")";
+        }
+    }
+}
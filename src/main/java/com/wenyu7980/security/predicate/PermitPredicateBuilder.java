@@ -0,0 +1,185 @@
+package com.wenyu7980.security.predicate;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.core.GrantablePermitConfig;
+import com.wenyu7980.security.core.PermitConfig;
+import com.wenyu7980.security.core.PermitDynamicType;
+import com.wenyu7980.security.core.PermitNode;
+import com.wenyu7980.security.core.PermitPlanRegistry;
+import com.wenyu7980.security.core.Permittable;
+import com.wenyu7980.security.core.PermittableRegistry;
+
+import java.text.MessageFormat;
+import java.util.*;
+
+/**
+ * 由Permit注解生成查询前的权限条件，注解取自{@link PermitPlanRegistry}中的校验计划
+ * 根校验使用{@link GrantablePermitConfig#grants(Permit)}，上级资源生成子条件，
+ * 结果与校验一致：数据满足条件当且仅当校验通过。
+ * 上级资源超过最大深度时不再展开，视为不通过，存在环时只会少返回数据
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class PermitPredicateBuilder {
+    private final PermitPlanRegistry plans;
+    private final PermittableRegistry permittables;
+    private final PermitConfig config;
+    /** 上级资源最大深度 */
+    private final int maxDepth;
+
+    public PermitPredicateBuilder(PermitPlanRegistry plans,
+            PermittableRegistry permittables, PermitConfig config,
+            int maxDepth) {
+        this.plans = plans;
+        this.permittables = permittables;
+        this.config = config;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * 当前用户对数据类型的权限条件
+     * @param type
+     * @return
+     */
+    public PermitPredicate build(Class<?> type) {
+        if (!(this.config instanceof GrantablePermitConfig)) {
+            throw new RuntimeException(MessageFormat
+                    .format("{0}需要实现GrantablePermitConfig",
+                            this.config.getClass().getName()));
+        }
+        return new Build((GrantablePermitConfig) this.config)
+                .predicate(type, 0);
+    }
+
+    /**
+     * 一次生成，同一根校验只调用一次grants，同一类型同一深度只生成一次
+     */
+    private class Build {
+        private final GrantablePermitConfig config;
+        private final Map<Permit, Collection<?>> grants = new HashMap<>();
+        private final Map<Class<?>, PermitPredicate[]> predicates = new HashMap<>();
+
+        private Build(GrantablePermitConfig config) {
+            this.config = config;
+        }
+
+        private PermitPredicate predicate(Class<?> type, int depth) {
+            if (depth > maxDepth) {
+                return PermitPredicate.FALSE;
+            }
+            PermitPredicate[] cached = this.predicates.computeIfAbsent(type,
+                    t -> new PermitPredicate[maxDepth + 1]);
+            if (Objects.isNull(cached[depth])) {
+                cached[depth] = this.build(type, depth);
+            }
+            return cached[depth];
+        }
+
+        private PermitPredicate build(Class<?> type, int depth) {
+            List<PermitPredicate> predicates = new ArrayList<>();
+            for (PermitNode node : plans.plan(type).getNodes()) {
+                if (Objects.nonNull(node.getField())) {
+                    // 属性上权限注解
+                    predicates.add(this.permit(type, node.getPermit(),
+                            new String[] { node.getField().getName() },
+                            node.getField().getType(), depth));
+                } else {
+                    // 类型上权限注解
+                    predicates.add(this.permit(type, node.getPermit(),
+                            node.getPermit().names(), null, depth));
+                }
+            }
+            return PermitPredicate.or(predicates);
+        }
+
+        /**
+         * 一个权限注解的条件
+         * @param type
+         * @param permit
+         * @param fields 取值属性
+         * @param fieldType 属性注解时为属性类型
+         * @param depth
+         * @return
+         */
+        private PermitPredicate permit(Class<?> type, Permit permit,
+                String[] fields, Class<?> fieldType, int depth) {
+            List<PermitPredicate> predicates = new ArrayList<>();
+            if (permit.root()) {
+                predicates.add(PermitPredicate.in(fields[0],
+                        this.grants.computeIfAbsent(permit,
+                                this.config::grants)));
+            }
+            if (!"".equals(permit.dynamic())) {
+                predicates.add(this.dynamic(type, permit, fields, depth));
+            } else if (!Permittable.class.equals(permit.clazz())) {
+                predicates.add(this.superior(permit.clazz(), fields, depth));
+            } else if (Objects.nonNull(fieldType) && (!permit.root()
+                    || !plans.plan(fieldType).isEmpty())) {
+                // 复杂类型，根校验时属性类型中存在权限注解同样展开
+                predicates.add(PermitPredicate.nested(fields[0],
+                        this.predicate(fieldType, depth + 1)));
+            }
+            return PermitPredicate.or(predicates);
+        }
+
+        /**
+         * 动态关联，只支持枚举类型
+         * @param type
+         * @param permit
+         * @param fields
+         * @param depth
+         * @return
+         */
+        private PermitPredicate dynamic(Class<?> type, Permit permit,
+                String[] fields, int depth) {
+            Class<?> dynamic;
+            try {
+                dynamic = type.getDeclaredField(permit.dynamic()).getType();
+            } catch (NoSuchFieldException e) {
+                throw new RuntimeException(MessageFormat
+                        .format("{0}中不存在属性{1}", type.getName(),
+                                permit.dynamic()), e);
+            }
+            if (!dynamic.isEnum() || !PermitDynamicType.class
+                    .isAssignableFrom(dynamic)) {
+                throw new RuntimeException(MessageFormat
+                        .format("{0}的动态关联属性{1}不是PermitDynamicType枚举，无法生成权限条件",
+                                type.getName(), permit.dynamic()));
+            }
+            List<PermitPredicate> predicates = new ArrayList<>();
+            for (Object constant : dynamic.getEnumConstants()) {
+                predicates.add(PermitPredicate.and(Arrays.asList(
+                        PermitPredicate.equal(permit.dynamic(), constant),
+                        this.superior(((PermitDynamicType) constant).type(),
+                                fields, depth))));
+            }
+            return PermitPredicate.or(predicates);
+        }
+
+        private PermitPredicate superior(Class<?> clazz,
+                String[] fields, int depth) {
+            Class<?> entity = permittables.binding(clazz).getEntityType();
+            if (Objects.isNull(entity)) {
+                throw new RuntimeException(MessageFormat
+                        .format("{0}无法解析数据类型，无法生成权限条件", clazz.getName()));
+            }
+            return PermitPredicate.superior(fields, entity,
+                    this.predicate(entity, depth + 1));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.wenyu7980.security.predicate.jpa;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.predicate.PermitPredicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import javax.persistence.criteria.*;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 权限条件转换为JPA Specification
+ * 上级资源转换为EXISTS子查询，单一属性与上级资源的ID属性比较，
+ * Permits复合key按names与上级资源ID中同名的属性比较(IdClass或者EmbeddedId)
+ * <pre>
+ * repository.findAll(PermitSpecifications.of(builder.build(Order.class)), pageable);
+ * </pre>
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public final class PermitSpecifications {
+    private PermitSpecifications() {
+    }
+
+    /**
+     * 转换为Specification
+     * @param predicate
+     * @param <T>
+     * @return
+     */
+    public static <T> Specification<T> of(PermitPredicate predicate) {
+        return (root, query, builder) -> predicate
+                .accept(new Translator(root, query, builder));
+    }
+
+    /**
+     * 相对于path的条件转换
+     */
+    private static class Translator
+            implements PermitPredicate.Visitor<Predicate> {
+        private final Path<?> path;
+        private final AbstractQuery<?> query;
+        private final CriteriaBuilder builder;
+
+        private Translator(Path<?> path, AbstractQuery<?> query,
+                CriteriaBuilder builder) {
+            this.path = path;
+            this.query = query;
+            this.builder = builder;
+        }
+
+        @Override
+        public Predicate constant(boolean value) {
+            return value ? this.builder.conjunction() : this.builder.disjunction();
+        }
+
+        @Override
+        public Predicate notNull(String field) {
+            return this.builder.isNotNull(this.path.get(field));
+        }
+
+        @Override
+        public Predicate in(String field, Collection<?> values) {
+            return this.path.get(field).in(values);
+        }
+
+        @Override
+        public Predicate equal(String field, Object value) {
+            return this.builder.equal(this.path.get(field), value);
+        }
+
+        @Override
+        public Predicate or(List<PermitPredicate> predicates) {
+            return this.builder.or(this.translate(predicates));
+        }
+
+        @Override
+        public Predicate and(List<PermitPredicate> predicates) {
+            return this.builder.and(this.translate(predicates));
+        }
+
+        @Override
+        public Predicate nested(String field, PermitPredicate predicate) {
+            return predicate.accept(
+                    new Translator(this.path.get(field), this.query,
+                            this.builder));
+        }
+
+        @Override
+        public Predicate superior(String[] fields, Class<?> type,
+                PermitPredicate predicate) {
+            Subquery<Integer> subquery = this.query.subquery(Integer.class);
+            Root<?> superior = subquery.from(type);
+            List<Predicate> predicates = new ArrayList<>();
+            for (int i = 0; i < fields.length; i++) {
+                predicates.add(this.builder.equal(
+                        this.id(superior, fields.length == 1 ? null : fields[i]),
+                        this.path.get(fields[i])));
+            }
+            predicates.add(predicate
+                    .accept(new Translator(superior, subquery, this.builder)));
+            subquery.select(this.builder.literal(1))
+                    .where(predicates.toArray(new Predicate[0]));
+            return this.builder.exists(subquery);
+        }
+
+        /**
+         * 上级资源的ID属性
+         * @param superior
+         * @param name 复合key时的属性名，单一ID时为null
+         * @return
+         */
+        private Path<?> id(Root<?> superior, String name) {
+            EntityType<?> model = superior.getModel();
+            if (model.hasSingleIdAttribute()) {
+                Type<?> idType = model.getIdType();
+                Path<?> id = superior
+                        .get(model.getId(idType.getJavaType()).getName());
+                return Objects.isNull(name) || idType.getPersistenceType()
+                        != Type.PersistenceType.EMBEDDABLE ? id : id.get(name);
+            }
+            return superior.get(name);
+        }
+
+        private Predicate[] translate(List<PermitPredicate> predicates) {
+            Predicate[] translated = new Predicate[predicates.size()];
+            for (int i = 0; i < translated.length; i++) {
+                translated[i] = predicates.get(i).accept(this);
+            }
+            return translated;
+        }
+    }
+}
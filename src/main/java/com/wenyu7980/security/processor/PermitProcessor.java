@@ -0,0 +1,389 @@
+package com.wenyu7980.security.processor;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.annotation.Permits;
+import com.wenyu7980.security.core.PermitGeneratedPlan;
+import com.wenyu7980.security.core.Permittable;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * 编译期生成权限计划
+ * 为每个带Permit/Permits注解的类生成{@link PermitGeneratedPlan}：
+ * 直接读取属性或者调用getter，直接调用查询ID的构造函数，
+ * 并写入META-INF/services，运行时优先于反射使用
+ * 默认不注册，需要在编译插件中配置annotationProcessors
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+@SupportedAnnotationTypes({ "com.wenyu7980.security.annotation.Permit",
+        "com.wenyu7980.security.annotation.Permits" })
+public class PermitProcessor extends AbstractProcessor {
+    private static final String SUFFIX = "_PermitPlan";
+    /** 已经生成的类 */
+    private final Set<String> generated = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations,
+            RoundEnvironment round) {
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (Element element : round.getElementsAnnotatedWith(Permit.class)) {
+            if (element.getKind() == ElementKind.FIELD) {
+                types.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+        for (Element element : round
+                .getElementsAnnotatedWith(Permits.class)) {
+            if (element.getKind().isClass()) {
+                types.add((TypeElement) element);
+            }
+        }
+        for (TypeElement type : types) {
+            if (this.accessible(type)) {
+                this.generate(type);
+            }
+        }
+        if (round.processingOver() && !this.generated.isEmpty()) {
+            this.services();
+        }
+        return false;
+    }
+
+    /**
+     * 生成类和数据类型在同一个包中，数据类型及其外部类不能是private
+     * @param type
+     * @return
+     */
+    private boolean accessible(TypeElement type) {
+        Element element = type;
+        while (element instanceof TypeElement) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)
+                    || element.getEnclosingElement() instanceof TypeElement
+                    && !element.getModifiers().contains(Modifier.STATIC)) {
+                return false;
+            }
+            element = element.getEnclosingElement();
+        }
+        return true;
+    }
+
+    private void generate(TypeElement type) {
+        String pkg = this.processingEnv.getElementUtils().getPackageOf(type)
+                .getQualifiedName().toString();
+        String name = this.binaryName(type, pkg).replace('$', '_') + SUFFIX;
+        String entity = this.erasure(type.asType());
+        StringBuilder accessors = new StringBuilder();
+        Map<String, String> ids = new LinkedHashMap<>();
+        List<VariableElement> fields = ElementFilter
+                .fieldsIn(type.getEnclosedElements());
+        Set<String> names = new LinkedHashSet<>();
+        for (VariableElement field : fields) {
+            Permit permit = field.getAnnotation(Permit.class);
+            if (Objects.nonNull(permit)) {
+                names.add(field.getSimpleName().toString());
+                this.id(permit, Collections.singletonList(field.asType()),
+                        ids);
+                if (!permit.dynamic().isEmpty()) {
+                    names.add(permit.dynamic());
+                }
+                if (!permit.association().isEmpty()) {
+                    names.add(permit.association());
+                }
+            }
+        }
+        Permits permits = type.getAnnotation(Permits.class);
+        if (Objects.nonNull(permits)) {
+            for (Permit permit : permits.permits()) {
+                List<TypeMirror> values = new ArrayList<>();
+                for (String field : permit.names()) {
+                    names.add(field);
+                    VariableElement element = this.field(fields, field);
+                    values.add(Objects.isNull(element) ?
+                            null :
+                            element.asType());
+                }
+                this.id(permit, values, ids);
+                if (!permit.dynamic().isEmpty()) {
+                    names.add(permit.dynamic());
+                }
+                if (!permit.association().isEmpty()) {
+                    names.add(permit.association());
+                }
+            }
+        }
+        for (String field : names) {
+            String read = this.read(type, this.field(fields, field));
+            if (Objects.nonNull(read)) {
+                accessors.append("            case \"").append(field)
+                        .append("\":\n                return obj -> ((")
+                        .append(entity).append(") obj).").append(read)
+                        .append(";\n");
+            }
+        }
+        StringBuilder source = new StringBuilder();
+        if (!pkg.isEmpty()) {
+            source.append("package ").append(pkg).append(";\n\n");
+        }
+        // 生成的源码只使用ASCII字符，与编译编码无关
+        source.append("/**\n * {@link ").append(entity).append("}\n")
+                .append(" * @see ").append(PermitProcessor.class.getName())
+                .append("\n */\n");
+        source.append("public final class ").append(name).append(
+                " implements com.wenyu7980.security.core.PermitGeneratedPlan {\n");
+        source.append("    @Override\n    public Class<?> type() {\n")
+                .append("        return ").append(entity)
+                .append(".class;\n    }\n\n");
+        source.append("    @Override\n")
+                .append("    public com.wenyu7980.security.accessor.PermitAccessor accessor(String name) {\n")
+                .append("        switch (name) {\n").append(accessors)
+                .append("            default:\n                return null;\n")
+                .append("        }\n    }\n\n");
+        source.append("    @Override\n")
+                .append("    public com.wenyu7980.security.core.PermitIdFactory id(Class<?> idType, Class<?>[] parameterTypes) {\n");
+        for (Map.Entry<String, String> id : ids.entrySet()) {
+            source.append(id.getValue());
+        }
+        source.append("        return null;\n    }\n}\n");
+        String qualified = pkg.isEmpty() ? name : pkg + "." + name;
+        try {
+            JavaFileObject file = this.processingEnv.getFiler()
+                    .createSourceFile(qualified, type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+            this.generated.add(qualified);
+        } catch (IOException e) {
+            this.processingEnv.getMessager()
+                    .printMessage(Diagnostic.Kind.ERROR, e.getMessage(), type);
+        }
+    }
+
+    /**
+     * 查询ID构造，关联服务类的ID类型存在参数类型匹配的public构造函数时生成
+     * 按构造函数的参数类型判断，同一参数个数的不同构造函数分别生成
+     * @param permit
+     * @param values 属性类型
+     * @param ids
+     */
+    private void id(Permit permit, List<TypeMirror> values,
+            Map<String, String> ids) {
+        TypeMirror id = this.idType(this.clazz(permit));
+        if (Objects.isNull(id) || values.isEmpty() || values
+                .contains(null)) {
+            return;
+        }
+        Types types = this.processingEnv.getTypeUtils();
+        if (values.size() == 1 && types
+                .isAssignable(this.boxed(values.get(0)), this.boxed(id))) {
+            // 属性值已经是ID类型，直接使用
+            return;
+        }
+        String idName = this.erasure(id);
+        TypeElement element = (TypeElement) types.asElement(id);
+        if (!element.getModifiers().contains(Modifier.PUBLIC)) {
+            return;
+        }
+        for (ExecutableElement constructor : ElementFilter
+                .constructorsIn(element.getEnclosedElements())) {
+            List<? extends VariableElement> parameters = constructor
+                    .getParameters();
+            if (!constructor.getModifiers().contains(Modifier.PUBLIC)
+                    || parameters.size() != values.size()) {
+                continue;
+            }
+            StringJoiner arguments = new StringJoiner(", ");
+            StringJoiner parameterTypes = new StringJoiner(", ");
+            for (int i = 0; i < parameters.size(); i++) {
+                TypeMirror parameter = this.boxed(parameters.get(i).asType());
+                if (!types.isAssignable(this.boxed(values.get(i)), parameter)) {
+                    arguments = null;
+                    break;
+                }
+                arguments.add("(" + this.erasure(parameter) + ") values[" + i
+                        + "]");
+                parameterTypes.add(
+                        this.erasure(parameters.get(i).asType()) + ".class");
+            }
+            if (Objects.nonNull(arguments)) {
+                String key = idName + "(" + parameterTypes + ")";
+                if (!ids.containsKey(key)) {
+                    ids.put(key, "        if (" + idName
+                            + ".class.equals(idType) && java.util.Arrays.equals(parameterTypes, new Class<?>[] { "
+                            + parameterTypes
+                            + " })) {\n            return values -> new "
+                            + idName + "(" + arguments + ");\n        }\n");
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * 关联服务类
+     * @param permit
+     * @return
+     */
+    private TypeMirror clazz(Permit permit) {
+        try {
+            permit.clazz();
+        } catch (MirroredTypeException e) {
+            return e.getTypeMirror();
+        }
+        return null;
+    }
+
+    /**
+     * 服务类Permittable的ID类型
+     * @param clazz
+     * @return 无法确定时返回null
+     */
+    private TypeMirror idType(TypeMirror clazz) {
+        if (Objects.isNull(clazz) || clazz.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        Types types = this.processingEnv.getTypeUtils();
+        String permittable = Permittable.class.getCanonicalName();
+        Deque<TypeMirror> queue = new ArrayDeque<>();
+        queue.add(clazz);
+        while (!queue.isEmpty()) {
+            TypeMirror type = queue.poll();
+            if (permittable.equals(this.erasure(type))) {
+                List<? extends TypeMirror> arguments = ((DeclaredType) type)
+                        .getTypeArguments();
+                if (arguments.size() == 2 && arguments.get(1).getKind()
+                        == TypeKind.DECLARED) {
+                    return arguments.get(1);
+                }
+                return null;
+            }
+            queue.addAll(types.directSupertypes(type));
+        }
+        return null;
+    }
+
+    /**
+     * 读取属性的表达式，非private属性直接读取，否则调用getter
+     * @param type
+     * @param field
+     * @return 无法读取时返回null
+     */
+    private String read(TypeElement type, VariableElement field) {
+        if (Objects.isNull(field)) {
+            return null;
+        }
+        String name = field.getSimpleName().toString();
+        if (!field.getModifiers().contains(Modifier.PRIVATE)) {
+            return name;
+        }
+        String suffix = Character.toUpperCase(name.charAt(0)) + name
+                .substring(1);
+        Types types = this.processingEnv.getTypeUtils();
+        for (ExecutableElement method : ElementFilter
+                .methodsIn(this.processingEnv.getElementUtils()
+                        .getAllMembers(type))) {
+            String methodName = method.getSimpleName().toString();
+            if ((methodName.equals("get" + suffix) || methodName
+                    .equals("is" + suffix)) && method.getParameters().isEmpty()
+                    && !method.getModifiers().contains(Modifier.PRIVATE)
+                    && !method.getModifiers().contains(Modifier.STATIC)
+                    && types.isSameType(method.getReturnType(),
+                    field.asType())) {
+                return methodName + "()";
+            }
+        }
+        return null;
+    }
+
+    private VariableElement field(List<VariableElement> fields, String name) {
+        for (VariableElement field : fields) {
+            if (field.getSimpleName().contentEquals(name)) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    private TypeMirror boxed(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return this.processingEnv.getTypeUtils()
+                    .boxedClass((PrimitiveType) type).asType();
+        }
+        return type;
+    }
+
+    private String erasure(TypeMirror type) {
+        TypeMirror erasure = this.processingEnv.getTypeUtils().erasure(type);
+        if (erasure.getKind() == TypeKind.DECLARED) {
+            return ((TypeElement) ((DeclaredType) erasure).asElement())
+                    .getQualifiedName().toString();
+        }
+        return erasure.toString();
+    }
+
+    /**
+     * 包内的类名，嵌套类用$连接
+     * @param type
+     * @param pkg
+     * @return
+     */
+    private String binaryName(TypeElement type, String pkg) {
+        String name = this.processingEnv.getElementUtils().getBinaryName(type)
+                .toString();
+        return pkg.isEmpty() ? name : name.substring(pkg.length() + 1);
+    }
+
+    /**
+     * 写入ServiceLoader配置
+     */
+    private void services() {
+        try {
+            FileObject file = this.processingEnv.getFiler()
+                    .createResource(StandardLocation.CLASS_OUTPUT, "",
+                            "META-INF/services/" + PermitGeneratedPlan.class
+                                    .getName());
+            try (Writer writer = file.openWriter()) {
+                for (String name : this.generated) {
+                    writer.write(name);
+                    writer.write("\n");
+                }
+            }
+        } catch (IOException e) {
+            this.processingEnv.getMessager()
+                    .printMessage(Diagnostic.Kind.ERROR, e.getMessage());
+        }
+    }
+}
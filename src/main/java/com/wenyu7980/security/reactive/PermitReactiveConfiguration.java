@@ -0,0 +1,51 @@
+package com.wenyu7980.security.reactive;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.core.PermitConfig;
+import com.wenyu7980.security.core.PermitPlanRegistry;
+import com.wenyu7980.security.core.PermitProperties;
+import com.wenyu7980.security.core.PermitRootDecider;
+import com.wenyu7980.security.core.PermittableRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 响应式数据权限组件配置
+ * reactor存在时生效
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+@Configuration
+@ConditionalOnClass(name = "reactor.core.publisher.Mono")
+public class PermitReactiveConfiguration {
+
+    @Bean
+    public ReactivePermitEvaluator reactivePermitEvaluator(
+            PermitPlanRegistry plans, PermittableRegistry permittables,
+            PermitConfig permitConfig, PermitRootDecider roots,
+            PermitProperties properties) {
+        return new ReactivePermitEvaluator(plans, permittables, permitConfig,
+                roots, properties.getTraversal().getMaxDepth());
+    }
+
+    @Bean
+    public ReactivePermitHandler reactivePermitHandler(
+            ReactivePermitEvaluator evaluator) {
+        return new ReactivePermitHandler(evaluator);
+    }
+}
@@ -0,0 +1,46 @@
+package com.wenyu7980.security.reactive;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.core.PermitConfig;
+import reactor.core.publisher.Mono;
+
+/**
+ * 响应式数据权限校验接口
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public interface ReactivePermitConfig extends PermitConfig {
+    /**
+     * 校验
+     * @param obj
+     * @param permit
+     * @return
+     */
+    Mono<Boolean> checkReactivePermit(Object obj, Permit permit);
+
+    /**
+     * 同步校验时使用，阻塞获取
+     * @param obj
+     * @param permit
+     * @return
+     */
+    @Override
+    default boolean checkPermit(Object obj, Permit permit) {
+        return Boolean.TRUE.equals(this.checkReactivePermit(obj, permit).block());
+    }
+}
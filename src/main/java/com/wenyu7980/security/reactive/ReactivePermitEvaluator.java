@@ -0,0 +1,233 @@
+package com.wenyu7980.security.reactive;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.core.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 响应式权限校验
+ * 权限节点按顺序校验，任意一个通过即结束
+ * 上级资源是ReactivePermittable，PermitConfig是ReactivePermitConfig时全程不阻塞；
+ * 否则在boundedElastic上调用同步接口；根校验同样使用根资源集合、缓存和指标，
+ * 上级资源超过traversal.max-depth时视为不通过
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class ReactivePermitEvaluator {
+    /** 校验中查询上级资源的标记，此时PermitMethod不再重复校验 */
+    static final String CHECKING = ReactivePermitEvaluator.class.getName()
+            + ".CHECKING";
+    /** 类权限计划 */
+    private final PermitPlanRegistry plans;
+    /** 上级资源服务类 */
+    private final PermittableRegistry permittables;
+    private final PermitConfig permitConfig;
+    /** 根校验 */
+    private final PermitRootDecider roots;
+    /** 上级资源最大深度 */
+    private final int maxDepth;
+
+    public ReactivePermitEvaluator(PermitPlanRegistry plans,
+            PermittableRegistry permittables, PermitConfig permitConfig,
+            PermitRootDecider roots, int maxDepth) {
+        this.plans = plans;
+        this.permittables = permittables;
+        this.permitConfig = permitConfig;
+        this.roots = roots;
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * 校验数据
+     * @param obj
+     * @return
+     */
+    public Mono<Boolean> check(Object obj) {
+        return this.check(obj, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * 校验数据
+     * @param obj
+     * @param granted 已经通过的上级资源，多条数据可以共用
+     * @return
+     */
+    Mono<Boolean> check(Object obj, Map<PermitKey, Boolean> granted) {
+        return Mono.defer(() -> this
+                .check(obj, new Decisions(granted, new ConcurrentHashMap<>()),
+                        0));
+    }
+
+    private Mono<Boolean> check(Object obj, Decisions decisions, int depth) {
+        if (Objects.isNull(obj)) {
+            return Mono.just(false);
+        }
+        // Optional 处理
+        if (obj instanceof Optional) {
+            if (!((Optional) obj).isPresent()) {
+                return Mono.just(false);
+            }
+            obj = ((Optional) obj).get();
+        }
+        Object data = obj;
+        return Flux.fromIterable(this.plans.plan(data.getClass()).getNodes())
+                .concatMap(node -> this.checkNode(data, node, decisions, depth))
+                .any(Boolean::booleanValue);
+    }
+
+    private Mono<Boolean> checkNode(Object obj, PermitNode node,
+            Decisions decisions, int depth) {
+        Object[] values = node.values(obj);
+        if (Objects.isNull(values)) {
+            return Mono.just(false);
+        }
+        Mono<Boolean> root = node.getPermit().root() ?
+                this.checkRoot(values[0], node.getPermit()) :
+                Mono.just(false);
+        return root.flatMap(granted -> {
+            if (granted) {
+                return Mono.just(true);
+            }
+            Class<?> clazz = node.type(obj);
+            if (Objects.isNull(clazz)) {
+                // 复杂类型
+                return this.check(values[0], decisions, depth);
+            }
+            if (depth >= this.maxDepth) {
+                decisions.cuts.incrementAndGet();
+                return Mono.just(false);
+            }
+            return this.checkSuperior(clazz, values, node, obj, decisions,
+                    depth);
+        });
+    }
+
+    /**
+     * 根校验
+     * ReactivePermitConfig的校验不阻塞，根资源集合和缓存在boundedElastic上访问
+     * @param value
+     * @param permit
+     * @return
+     */
+    private Mono<Boolean> checkRoot(Object value, Permit permit) {
+        if (!(this.permitConfig instanceof ReactivePermitConfig)) {
+            return Mono.fromCallable(() -> PermitContext
+                    .checking(() -> this.roots.check(value, permit)))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+        ReactivePermitConfig config = (ReactivePermitConfig) this.permitConfig;
+        boolean blocking = this.roots.isBlocking();
+        Mono<PermitRootDecider.Decision> begin = Mono.fromCallable(
+                () -> PermitContext.checking(() -> this.roots.begin(value, permit)));
+        if (blocking) {
+            begin = begin.subscribeOn(Schedulers.boundedElastic());
+        }
+        return begin.flatMap(decision -> {
+            if (Objects.nonNull(decision.getGranted())) {
+                return Mono.just(decision.complete(decision.getGranted()));
+            }
+            Mono<Boolean> granted = config.checkReactivePermit(value, permit)
+                    .defaultIfEmpty(false);
+            if (blocking) {
+                granted = granted.publishOn(Schedulers.boundedElastic());
+            }
+            return granted.map(decision::complete);
+        });
+    }
+
+    /**
+     * 校验上级资源
+     * 同一上级资源在一次校验中最多查询一次，校验中的上级资源为false，
+     * 因超过最大深度不通过的结果不记录，较短路径到达时重新校验
+     * @param clazz
+     * @param values
+     * @param node 权限节点，读取association属性中已加载的上级资源
+     * @param obj
+     * @param decisions
+     * @param depth 当前数据的深度
+     * @return
+     */
+    private Mono<Boolean> checkSuperior(Class<?> clazz, Object[] values,
+            PermitNode node, Object obj, Decisions decisions, int depth) {
+        PermittableBinding binding = this.permittables.binding(clazz);
+        PermitKey key = new PermitKey(binding.getType(), binding.id(values));
+        if (decisions.granted.containsKey(key)) {
+            return Mono.just(true);
+        }
+        Boolean decision = decisions.checking.putIfAbsent(key, Boolean.FALSE);
+        if (Objects.nonNull(decision)) {
+            return Mono.just(decision);
+        }
+        Object loaded = node.superior(obj, key.getId());
+        Mono<?> found = Objects.isNull(loaded) ?
+                this.find(binding, key.getId()) :
+                Mono.just(loaded);
+        int cuts = decisions.cuts.get();
+        return found
+                .flatMap(superior -> this.check(superior, decisions, depth + 1))
+                .defaultIfEmpty(false).doOnNext(granted -> {
+                    if (granted) {
+                        decisions.checking.put(key, true);
+                        decisions.granted.put(key, true);
+                    } else if (decisions.cuts.get() != cuts) {
+                        decisions.checking.remove(key);
+                    }
+                });
+    }
+
+    private Mono<?> find(PermittableBinding binding, Object id) {
+        Permittable<Object, Object> permittable = binding.getPermittable();
+        if (permittable instanceof ReactivePermittable) {
+            return ((ReactivePermittable<Object, Object>) permittable)
+                    .findReactivePermitById(id)
+                    .subscriberContext(Context.of(CHECKING, true));
+        }
+        return Mono.fromCallable(() -> PermitContext
+                .checking(() -> binding.find(id)))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(optional -> Mono.justOrEmpty((Optional<?>) optional));
+    }
+
+    /**
+     * 上级资源的校验结果
+     * 不通过的结果可能是环造成的，只在一条数据的校验中有效
+     */
+    private static final class Decisions {
+        /** 已经通过的上级资源，多条数据共用 */
+        private final Map<PermitKey, Boolean> granted;
+        /** 本条数据中的校验结果，校验中为false */
+        private final Map<PermitKey, Boolean> checking;
+        /** 超过最大深度的次数，一条数据内按顺序校验 */
+        private final AtomicInteger cuts = new AtomicInteger();
+
+        private Decisions(Map<PermitKey, Boolean> granted,
+                Map<PermitKey, Boolean> checking) {
+            this.granted = granted;
+            this.checking = checking;
+        }
+    }
+}
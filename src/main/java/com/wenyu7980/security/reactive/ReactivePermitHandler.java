@@ -0,0 +1,132 @@
+package com.wenyu7980.security.reactive;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.annotation.PermitBatch;
+import com.wenyu7980.security.annotation.PermitMethod;
+import com.wenyu7980.security.core.PermitKey;
+import com.wenyu7980.security.core.PermitReactiveHandler;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Mono和Flux返回值处理
+ * Mono校验返回的数据；Flux逐条校验，按PermitMethod.batch拒绝或者过滤，
+ * 同一次订阅中的数据共用已通过的上级资源；
+ * PermitMethod.before的同步校验在boundedElastic上执行，通过后再调用方法
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class ReactivePermitHandler implements PermitReactiveHandler {
+    private final ReactivePermitEvaluator evaluator;
+
+    public ReactivePermitHandler(ReactivePermitEvaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    @Override
+    public boolean supports(Object ret) {
+        return ret instanceof Mono || ret instanceof Flux;
+    }
+
+    @Override
+    public Object permit(Object ret, PermitMethod permitMethod,
+            Supplier<RuntimeException> exception) {
+        if (ret instanceof Mono) {
+            Mono<Object> mono = Mono.from((Mono<?>) ret);
+            return this.checking().flatMap(checking -> checking ?
+                    mono :
+                    mono.flatMap(
+                            value -> this.evaluator.check(value)
+                                    .flatMap(granted -> granted ?
+                                            Mono.just(value) :
+                                            Mono.error(exception))));
+        }
+        Flux<Object> flux = Flux.from((Flux<?>) ret);
+        return this.checking().flatMapMany(checking -> {
+            if (checking) {
+                return flux;
+            }
+            Map<PermitKey, Boolean> granted = new ConcurrentHashMap<>();
+            if (permitMethod.batch() == PermitBatch.FILTER) {
+                return flux.filterWhen(
+                        value -> this.evaluator.check(value, granted));
+            }
+            return flux.concatMap(value -> this.evaluator
+                    .check(value, granted).flatMap(g -> g ?
+                            Mono.just(value) :
+                            Mono.error(exception)));
+        });
+    }
+
+    @Override
+    public boolean supportsType(Class<?> type) {
+        return Mono.class.isAssignableFrom(type) || Flux.class
+                .isAssignableFrom(type);
+    }
+
+    @Override
+    public Object before(Class<?> type, Supplier<Boolean> check,
+            Callable<Object> proceed, Supplier<RuntimeException> exception) {
+        Mono<Boolean> granted = this.checking().flatMap(checking -> checking ?
+                Mono.just(true) :
+                Mono.fromCallable(check::get)
+                        .subscribeOn(Schedulers.boundedElastic()));
+        if (Mono.class.isAssignableFrom(type)) {
+            return granted.flatMap(g -> g ?
+                    Mono.defer(() -> Mono.from(this.proceed(proceed))) :
+                    Mono.error(exception));
+        }
+        return granted.flatMapMany(g -> g ?
+                Flux.defer(() -> Flux.from(this.proceed(proceed))) :
+                Flux.error(exception));
+    }
+
+    /**
+     * 调用方法，方法返回null时为空
+     * @param proceed
+     * @return
+     */
+    private Publisher<?> proceed(Callable<Object> proceed) {
+        Object ret;
+        try {
+            ret = proceed.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        return Objects.isNull(ret) ? Mono.empty() : (Publisher<?>) ret;
+    }
+
+    /**
+     * 是否是校验中查询上级资源
+     * @return
+     */
+    private Mono<Boolean> checking() {
+        return Mono.subscriberContext().map(context -> context
+                .getOrDefault(ReactivePermitEvaluator.CHECKING, false));
+    }
+}
@@ -0,0 +1,46 @@
+package com.wenyu7980.security.reactive;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.core.Permittable;
+import reactor.core.publisher.Mono;
+
+import java.util.Optional;
+
+/**
+ * 响应式权限控制接口
+ * 响应式校验时通过findReactivePermitById非阻塞获取上级资源
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public interface ReactivePermittable<T, ID> extends Permittable<T, ID> {
+    /**
+     * 通过id获取数据
+     * @param id
+     * @return
+     */
+    Mono<T> findReactivePermitById(ID id);
+
+    /**
+     * 同步校验时使用，阻塞获取
+     * @param id
+     * @return
+     */
+    @Override
+    default Optional<T> findPermitById(ID id) {
+        return this.findReactivePermitById(id).blockOptional();
+    }
+}
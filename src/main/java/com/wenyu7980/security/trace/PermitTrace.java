@@ -0,0 +1,250 @@
+package com.wenyu7980.security.trace;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.core.PermitKey;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 一次权限校验的过程
+ * 按校验顺序记录权限节点、根校验、上级资源查询和已知结果，parent为上层步骤的位置
+ * 只在一个线程中记录，结束后只读
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class PermitTrace {
+    /** PermitMethod方法，直接调用时为null */
+    private final String method;
+    /** 被校验数据类型 */
+    private final String type;
+    /** 开始时间(毫秒) */
+    private final long timestamp = System.currentTimeMillis();
+    /** 步骤 */
+    private final List<Step> steps = new ArrayList<>();
+    /** 耗时(纳秒) */
+    private long nanos;
+    private boolean granted;
+
+    public PermitTrace(Method method, Class<?> type) {
+        this.method = Objects.isNull(method) ?
+                null :
+                method.getDeclaringClass().getSimpleName() + "." + method
+                        .getName();
+        this.type = Objects.isNull(type) ? null : type.getName();
+    }
+
+    /**
+     * 权限节点
+     * @param parent 上层步骤，-1表示被校验数据
+     * @param label 数据类型和属性
+     * @return 步骤位置
+     */
+    public int node(int parent, String label) {
+        return this.add(new Step(Kind.NODE, parent, label, null, 0L));
+    }
+
+    /**
+     * 根校验
+     * @param parent
+     * @param permit
+     * @param value
+     * @param granted
+     * @param nanos
+     * @return
+     */
+    public int root(int parent, Permit permit, Object value, boolean granted,
+            long nanos) {
+        return this.add(new Step(Kind.ROOT, parent,
+                "".equals(permit.type()) ?
+                        String.valueOf(value) :
+                        permit.type() + ":" + value, granted, nanos));
+    }
+
+    /**
+     * 上级资源查询
+     * @param parent
+     * @param label 上级资源，批量查询时为服务类和ID数量
+     * @param found 是否查询到
+     * @param nanos
+     * @return
+     */
+    public int lookup(int parent, String label, boolean found, long nanos) {
+        return this.add(new Step(Kind.LOOKUP, parent, label, found, nanos));
+    }
+
+    /**
+     * 上级资源已知结果，没有查询
+     * @param parent
+     * @param key
+     * @param granted
+     * @return
+     */
+    public int memo(int parent, PermitKey key, boolean granted) {
+        return this.add(
+                new Step(Kind.MEMO, parent, key.toString(), granted, 0L));
+    }
+
+    /**
+     * 超过最大深度，没有查询
+     * @param parent
+     * @param key
+     * @return
+     */
+    public int cut(int parent, PermitKey key) {
+        return this.add(new Step(Kind.CUT, parent, key.toString(), false, 0L));
+    }
+
+    /**
+     * 校验结束
+     * @param granted
+     * @param nanos
+     */
+    public void finish(boolean granted, long nanos) {
+        this.granted = granted;
+        this.nanos = nanos;
+    }
+
+    private int add(Step step) {
+        this.steps.add(step);
+        return this.steps.size() - 1;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public boolean isGranted() {
+        return granted;
+    }
+
+    public List<Step> getSteps() {
+        return Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * 按层缩进的校验过程
+     * @return
+     */
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(Objects.isNull(this.method) ? this.type : this.method)
+                .append(this.granted ? " GRANTED " : " DENIED ")
+                .append(this.nanos / 1000).append("us");
+        int[] depths = new int[this.steps.size()];
+        for (int i = 0; i < depths.length; i++) {
+            Step step = this.steps.get(i);
+            depths[i] = step.parent < 0 ? 1 : depths[step.parent] + 1;
+            builder.append('\n');
+            for (int d = 0; d < depths[i]; d++) {
+                builder.append("  ");
+            }
+            builder.append(step);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 步骤类型
+     */
+    public enum Kind {
+        /** 权限节点 */
+        NODE,
+        /** 根校验 */
+        ROOT,
+        /** 上级资源查询 */
+        LOOKUP,
+        /** 上级资源已知结果 */
+        MEMO,
+        /** 超过最大深度 */
+        CUT
+    }
+
+    /**
+     * 校验步骤
+     */
+    public static final class Step {
+        private final Kind kind;
+        /** 上层步骤，-1表示被校验数据 */
+        private final int parent;
+        private final String label;
+        /** 结果，上级资源查询时为是否查询到，权限节点为null */
+        private final Boolean granted;
+        /** 耗时(纳秒)，只有根校验和上级资源查询计时 */
+        private final long nanos;
+
+        private Step(Kind kind, int parent, String label, Boolean granted,
+                long nanos) {
+            this.kind = kind;
+            this.parent = parent;
+            this.label = label;
+            this.granted = granted;
+            this.nanos = nanos;
+        }
+
+        public Kind getKind() {
+            return kind;
+        }
+
+        public int getParent() {
+            return parent;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public Boolean getGranted() {
+            return granted;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder().append(this.kind)
+                    .append(' ').append(this.label);
+            if (Objects.nonNull(this.granted)) {
+                builder.append(" = ").append(this.granted);
+            }
+            if (this.nanos > 0) {
+                builder.append(' ').append(this.nanos / 1000).append("us");
+            }
+            return builder.toString();
+        }
+    }
+}
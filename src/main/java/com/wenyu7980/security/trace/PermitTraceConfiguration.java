@@ -0,0 +1,50 @@
+package com.wenyu7980.security.trace;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import com.wenyu7980.security.core.PermitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 权限校验过程采样配置
+ * 开启data-permit.trace.enabled时生效，spring-boot-actuator存在时注册permittraces端点
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "data-permit.trace", name = "enabled", havingValue = "true")
+public class PermitTraceConfiguration {
+
+    @Bean
+    public PermitTracer permitTracer(PermitProperties properties) {
+        PermitProperties.Trace trace = properties.getTrace();
+        return new PermitTracer(trace.getSampleRate(), trace.getThreshold(),
+                trace.getCapacity());
+    }
+
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    public static class PermitTraceEndpointConfiguration {
+        @Bean
+        public PermitTraceEndpoint permitTraceEndpoint(PermitTracer tracer) {
+            return new PermitTraceEndpoint(tracer);
+        }
+    }
+}
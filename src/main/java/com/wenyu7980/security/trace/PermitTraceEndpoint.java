@@ -0,0 +1,48 @@
+package com.wenyu7980.security.trace;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * 权限校验过程端点
+ * GET返回保存的校验过程，耗时从大到小；DELETE清空
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+@Endpoint(id = "permittraces")
+public class PermitTraceEndpoint {
+    private final PermitTracer tracer;
+
+    public PermitTraceEndpoint(PermitTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @ReadOperation
+    public List<PermitTrace> traces() {
+        return this.tracer.traces();
+    }
+
+    @DeleteOperation
+    public void clear() {
+        this.tracer.clear();
+    }
+}
@@ -0,0 +1,146 @@
+package com.wenyu7980.security.trace;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 权限校验过程采样
+ * 按比例采样校验，耗时不小于阈值的通过过程按耗时保留最慢的capacity个，
+ * 不通过的过程另外保留最近的capacity个
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class PermitTracer {
+    private static final Comparator<PermitTrace> DURATION = Comparator
+            .comparingLong(PermitTrace::getNanos);
+    /** 采样比例 */
+    private final double sampleRate;
+    /** 保存的最小耗时(纳秒) */
+    private final long threshold;
+    /** 保存数量 */
+    private final int capacity;
+    /** 最慢的通过过程，堆顶为其中最快的 */
+    private final PriorityQueue<PermitTrace> slowest;
+    /** 最近的不通过过程 */
+    private final Deque<PermitTrace> denials;
+
+    /**
+     * @param sampleRate 采样比例，0到1
+     * @param threshold 耗时不小于该值的过程被保存，不通过的过程总是保存
+     * @param capacity 通过和不通过的过程各自保存的数量
+     */
+    public PermitTracer(double sampleRate, Duration threshold, int capacity) {
+        if (capacity <= 0) {
+            throw new RuntimeException("data-permit.trace.capacity必须大于0");
+        }
+        this.sampleRate = sampleRate;
+        this.threshold = threshold.toNanos();
+        this.capacity = capacity;
+        this.slowest = new PriorityQueue<>(capacity, DURATION);
+        this.denials = new ArrayDeque<>(capacity);
+    }
+
+    /**
+     * 开始采样
+     * @param method PermitMethod方法，直接调用时为null
+     * @param type 被校验数据类型
+     * @return null表示不采样
+     */
+    public PermitTrace start(Method method, Class<?> type) {
+        if (this.sampleRate < 1.0D && ThreadLocalRandom.current().nextDouble()
+                >= this.sampleRate) {
+            return null;
+        }
+        return new PermitTrace(method, type);
+    }
+
+    /**
+     * 结束采样
+     * 不通过的过程替换最早的不通过过程；通过的过程比保存的最快过程慢时替换它
+     * @param trace
+     * @param granted
+     * @param nanos
+     */
+    public void finish(PermitTrace trace, boolean granted, long nanos) {
+        trace.finish(granted, nanos);
+        if (!granted) {
+            synchronized (this) {
+                if (this.denials.size() == this.capacity) {
+                    this.denials.pollFirst();
+                }
+                this.denials.addLast(trace);
+            }
+            return;
+        }
+        if (nanos < this.threshold) {
+            return;
+        }
+        synchronized (this) {
+            if (this.slowest.size() < this.capacity) {
+                this.slowest.add(trace);
+            } else if (nanos > this.slowest.peek().getNanos()) {
+                this.slowest.poll();
+                this.slowest.add(trace);
+            }
+        }
+    }
+
+    /**
+     * 保存的过程，耗时从大到小
+     * @return
+     */
+    public List<PermitTrace> traces() {
+        List<PermitTrace> traces;
+        synchronized (this) {
+            traces = new ArrayList<>(this.slowest.size() + this.denials.size());
+            traces.addAll(this.slowest);
+            traces.addAll(this.denials);
+        }
+        traces.sort(DURATION.reversed());
+        return traces;
+    }
+
+    /**
+     * 保存的不通过过程，从新到旧
+     * @return
+     */
+    public List<PermitTrace> denials() {
+        List<PermitTrace> denials;
+        synchronized (this) {
+            denials = new ArrayList<>(this.denials);
+        }
+        Collections.reverse(denials);
+        return denials;
+    }
+
+    /**
+     * 清空保存的过程
+     */
+    public synchronized void clear() {
+        this.slowest.clear();
+        this.denials.clear();
+    }
+}
@@ -0,0 +1,77 @@
+package com.wenyu7980.security.accessor;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * getter读取与属性读取
+ * 生成的getter调用只能访问public类，测试类和数据类为public
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+public class LambdaPermitAccessorFactoryTest {
+    /**
+     * LAMBDA读取getter的返回值，REFLECTION读取属性值
+     */
+    @Test
+    void readsGetter() throws Exception {
+        Field field = field("storeId");
+        Shop shop = new Shop(" s1 ");
+        assertThat(new LambdaPermitAccessorFactory().create(field).get(shop))
+                .isEqualTo("s1");
+        assertThat(new ReflectionPermitAccessorFactory().create(field).get(shop))
+                .isEqualTo(" s1 ");
+    }
+
+    /**
+     * 没有public getter时读取属性值
+     */
+    @Test
+    void fallsBackToField() throws Exception {
+        Shop shop = new Shop(" s1 ");
+        assertThat(new LambdaPermitAccessorFactory().create(field("ownerId"))
+                .get(shop)).isEqualTo("o1");
+    }
+
+    private static Field field(String name) throws NoSuchFieldException {
+        Field field = Shop.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return field;
+    }
+
+    public static class Shop {
+        private String storeId;
+        private String ownerId = "o1";
+
+        Shop(String storeId) {
+            this.storeId = storeId;
+        }
+
+        public String getStoreId() {
+            return storeId.trim();
+        }
+
+        String getOwnerId() {
+            return ownerId;
+        }
+    }
+}
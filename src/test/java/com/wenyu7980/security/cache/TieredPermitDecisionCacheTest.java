@@ -0,0 +1,171 @@
+package com.wenyu7980.security.cache;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 两级根校验结果缓存
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class TieredPermitDecisionCacheTest {
+    private final PermitDecisionKey key = new PermitDecisionKey("u1", "",
+            "t1");
+
+    @Test
+    void invalidates() {
+        TieredPermitDecisionCache cache = this.cache(null,
+                new LoopbackPermitInvalidationBus());
+        cache.put(this.key, true);
+        assertThat(cache.get(this.key)).isTrue();
+        cache.invalidate("u2");
+        assertThat(cache.get(this.key)).isTrue();
+        cache.invalidate("u1", "", "t1");
+        assertThat(cache.get(this.key)).isNull();
+        cache.put(this.key, true);
+        cache.invalidateRoot("", "t1");
+        assertThat(cache.get(this.key)).isNull();
+        cache.put(this.key, true);
+        cache.invalidateAll();
+        assertThat(cache.get(this.key)).isNull();
+    }
+
+    /**
+     * 未命中到写入之间发生失效时不写入
+     */
+    @Test
+    void dropsPutAfterInvalidation() {
+        SharedCache shared = new SharedCache();
+        TieredPermitDecisionCache cache = this.cache(shared,
+                new LoopbackPermitInvalidationBus());
+        long generation = cache.generation(this.key);
+        assertThat(cache.get(this.key)).isNull();
+        cache.invalidate("u1");
+        cache.put(this.key, true, generation);
+        assertThat(cache.get(this.key)).isNull();
+        assertThat(shared.values).isEmpty();
+        generation = cache.generation(this.key);
+        assertThat(cache.get(this.key)).isNull();
+        cache.put(this.key, true, generation);
+        assertThat(cache.get(this.key)).isTrue();
+        assertThat(shared.values).containsEntry(this.key, true);
+    }
+
+    /**
+     * 共享缓存读取到写入本地之间发生失效时不写入本地
+     */
+    @Test
+    void dropsSharedReadAfterInvalidation() {
+        SharedCache shared = new SharedCache();
+        LocalPermitDecisionCache near = new LocalPermitDecisionCache(100,
+                Duration.ofMinutes(1));
+        TieredPermitDecisionCache cache = new TieredPermitDecisionCache(near,
+                shared, new LoopbackPermitInvalidationBus(),
+                Duration.ofMinutes(1));
+        shared.values.put(this.key, true);
+        shared.reading = () -> cache.invalidate("u1");
+        assertThat(cache.get(this.key)).isTrue();
+        shared.reading = null;
+        assertThat(near.get(this.key)).isNull();
+    }
+
+    /**
+     * 进程内总线不重复通知发布的缓存，其他缓存收到
+     */
+    @Test
+    void skipsSelfDelivery() {
+        LoopbackPermitInvalidationBus bus = new LoopbackPermitInvalidationBus();
+        TieredPermitDecisionCache first = this.cache(null, bus);
+        TieredPermitDecisionCache second = this.cache(null, bus);
+        List<PermitInvalidation> firstReceived = new ArrayList<>();
+        List<PermitInvalidation> secondReceived = new ArrayList<>();
+        first.subscribe(firstReceived::add);
+        second.subscribe(secondReceived::add);
+        second.put(this.key, true);
+        first.invalidate("u1");
+        assertThat(firstReceived).hasSize(1);
+        assertThat(secondReceived).hasSize(1);
+        assertThat(second.get(this.key)).isNull();
+    }
+
+    /**
+     * 发布节点收不到自己的事件时，本地订阅也会通知
+     */
+    @Test
+    void notifiesLocalListenersWithoutEcho() {
+        List<PermitInvalidation> published = new ArrayList<>();
+        TieredPermitDecisionCache cache = this
+                .cache(null, new PermitInvalidationBus() {
+                    @Override
+                    public void publish(PermitInvalidation invalidation) {
+                        published.add(invalidation);
+                    }
+
+                    @Override
+                    public void subscribe(
+                            Consumer<PermitInvalidation> listener) {
+                    }
+                });
+        List<PermitInvalidation> received = new ArrayList<>();
+        cache.subscribe(received::add);
+        cache.invalidateAll();
+        assertThat(received).hasSize(1);
+        assertThat(published).hasSize(1);
+    }
+
+    private TieredPermitDecisionCache cache(PermitSharedCache shared,
+            PermitInvalidationBus bus) {
+        return new TieredPermitDecisionCache(
+                new LocalPermitDecisionCache(100, Duration.ofMinutes(1)),
+                shared, bus, Duration.ofMinutes(1));
+    }
+
+    static class SharedCache implements PermitSharedCache {
+        private final Map<PermitDecisionKey, Boolean> values = new ConcurrentHashMap<>();
+        /** 读取时执行，模拟并发的失效 */
+        private Runnable reading;
+
+        @Override
+        public Boolean get(PermitDecisionKey key) {
+            Boolean granted = this.values.get(key);
+            if (this.reading != null) {
+                this.reading.run();
+            }
+            return granted;
+        }
+
+        @Override
+        public void put(PermitDecisionKey key, boolean granted,
+                Duration ttl) {
+            this.values.put(key, granted);
+        }
+
+        @Override
+        public void invalidate(PermitInvalidation invalidation) {
+            this.values.keySet().removeIf(invalidation::matches);
+        }
+    }
+}
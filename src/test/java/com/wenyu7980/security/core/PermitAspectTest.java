@@ -0,0 +1,179 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.EnableDataPermit;
+import com.wenyu7980.security.annotation.PermitBatch;
+import com.wenyu7980.security.annotation.PermitMethod;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 方法返回值校验
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class PermitAspectTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(Config.class);
+
+    @Test
+    void rejectsSingle() {
+        this.runner.run(context -> {
+            Orders orders = context.getBean(Orders.class);
+            assertThat(orders.get("o1")).isNotNull();
+            assertThatThrownBy(() -> orders.get("o2"))
+                    .isInstanceOf(IllegalStateException.class);
+        });
+    }
+
+    @Test
+    void rejectsBatch() {
+        this.runner.run(context -> {
+            Orders orders = context.getBean(Orders.class);
+            assertThat(orders.list("o1", "o1")).hasSize(2);
+            assertThatThrownBy(() -> orders.list("o1", "o2"))
+                    .isInstanceOf(IllegalStateException.class);
+        });
+    }
+
+    @Test
+    void filtersBatch() {
+        this.runner.run(context -> {
+            Orders orders = context.getBean(Orders.class);
+            assertThat(orders.filter("o1", "o2", "o1")).hasSize(2);
+            assertThat(orders.set("o1", "o2")).isInstanceOf(Set.class)
+                    .hasSize(1);
+            assertThat(orders.array("o2", "o1")).hasSize(1);
+        });
+    }
+
+    /**
+     * 只减去当前页过滤掉的数量
+     */
+    @Test
+    void filtersPage() {
+        this.runner.run(context -> {
+            Page<PermitEvaluatorTest.Order> page = context
+                    .getBean(Orders.class).page("o1", "o2");
+            assertThat(page.getContent()).hasSize(1);
+            assertThat(page.getTotalElements()).isEqualTo(29);
+        });
+    }
+
+    /**
+     * Stream读取后关闭
+     */
+    @Test
+    void closesStream() {
+        this.runner.run(context -> {
+            Orders orders = context.getBean(Orders.class);
+            AtomicInteger closed = new AtomicInteger();
+            assertThat(orders.stream(closed, "o1", "o2")
+                    .collect(Collectors.toList())).hasSize(1);
+            assertThat(closed).hasValue(1);
+            try (Stream<PermitEvaluatorTest.Order> stream = orders
+                    .rejectStream(closed, "o1")) {
+                assertThat(stream.count()).isEqualTo(1);
+            }
+            assertThat(closed).hasValue(2);
+            assertThatThrownBy(() -> orders.rejectStream(closed, "o2"))
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(closed).hasValue(3);
+        });
+    }
+
+    @Configuration
+    @Import(PermitEvaluatorTest.Config.class)
+    static class Config {
+        @Bean
+        Orders orders(PermitEvaluatorTest.OrderService service) {
+            return new Orders(service);
+        }
+    }
+
+    static class Orders {
+        private final PermitEvaluatorTest.OrderService service;
+
+        Orders(PermitEvaluatorTest.OrderService service) {
+            this.service = service;
+        }
+
+        @PermitMethod
+        public PermitEvaluatorTest.Order get(String id) {
+            return this.service.findPermitById(id).orElse(null);
+        }
+
+        @PermitMethod
+        public List<PermitEvaluatorTest.Order> list(String... ids) {
+            List<PermitEvaluatorTest.Order> orders = new ArrayList<>();
+            for (String id : ids) {
+                orders.add(this.get(id));
+            }
+            return orders;
+        }
+
+        @PermitMethod(batch = PermitBatch.FILTER)
+        public List<PermitEvaluatorTest.Order> filter(String... ids) {
+            return this.list(ids);
+        }
+
+        @PermitMethod(batch = PermitBatch.FILTER)
+        public Set<PermitEvaluatorTest.Order> set(String... ids) {
+            return this.list(ids).stream().collect(Collectors.toSet());
+        }
+
+        @PermitMethod(batch = PermitBatch.FILTER)
+        public PermitEvaluatorTest.Order[] array(String... ids) {
+            return this.list(ids).toArray(new PermitEvaluatorTest.Order[0]);
+        }
+
+        @PermitMethod(batch = PermitBatch.FILTER)
+        public Page<PermitEvaluatorTest.Order> page(String... ids) {
+            return new PageImpl<>(this.list(ids), PageRequest.of(0, 10), 30);
+        }
+
+        @PermitMethod(batch = PermitBatch.FILTER)
+        public Stream<PermitEvaluatorTest.Order> stream(AtomicInteger closed,
+                String... ids) {
+            return this.list(ids).stream().onClose(closed::incrementAndGet);
+        }
+
+        @PermitMethod
+        public Stream<PermitEvaluatorTest.Order> rejectStream(
+                AtomicInteger closed, String... ids) {
+            return Arrays.stream(ids).map(this::get)
+                    .onClose(closed::incrementAndGet);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import com.wenyu7980.security.annotation.Permit;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 批量校验与逐个校验
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class PermitBatchResolverTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(PermitTraversalTest.Config.class);
+    /** 足够展开所有数据的最大深度 */
+    private static final int DEPTH = 32;
+
+    /**
+     * 单个数据的批量校验与逐个校验一致
+     */
+    @Test
+    void singleMatchesSequential() {
+        this.each((evaluator, order, depth) -> {
+            for (Object sample : PermitTraversalTest.samples()) {
+                assertThat(evaluator.checkAll(Collections.singletonList(sample)))
+                        .as("%s max-depth=%d %s", order, depth, sample)
+                        .containsExactly(evaluator.check(sample));
+            }
+        });
+    }
+
+    /**
+     * 多个数据的批量校验中，逐个校验通过的数据都通过；
+     * 通过的上级资源在数据之间共用，最大深度不足时可以多通过，
+     * 最大深度足够时与逐个校验一致；null数据为true
+     */
+    @Test
+    void batchMatchesSequential() {
+        List<Object> samples = new ArrayList<>(PermitTraversalTest.samples());
+        samples.add(null);
+        samples.addAll(PermitTraversalTest.samples());
+        this.each((evaluator, order, depth) -> {
+            boolean[] batch = evaluator.checkAll(samples);
+            assertThat(batch).hasSize(samples.size());
+            for (int i = 0; i < samples.size(); i++) {
+                Object sample = samples.get(i);
+                boolean sequential = Objects.isNull(sample) || evaluator
+                        .check(sample);
+                if (depth >= DEPTH || sequential) {
+                    assertThat(batch[i])
+                            .as("%s max-depth=%d sample %d", order, depth, i)
+                            .isEqualTo(sequential);
+                }
+            }
+        });
+    }
+
+    /**
+     * 数据已经通过而没有展开的已加载上级资源不记录结果，
+     * 同一请求中之后的校验重新校验该上级资源
+     */
+    @Test
+    void skippedAssociationIsNotMemoized() {
+        this.runner.withPropertyValues("data-permit.memo=REQUEST")
+                .run(context -> {
+                    PermitEvaluator evaluator = context
+                            .getBean(PermitEvaluator.class);
+                    RequestContextHolder
+                            .setRequestAttributes(new MapRequestAttributes());
+                    try {
+                        Note note = new Note("s1",
+                                new PermitEvaluatorTest.Store("s1", "t1"), "t1");
+                        assertThat(evaluator.checkAll(Arrays.asList(note,
+                                new PermitEvaluatorTest.Order("o2", "s2"))))
+                                .containsExactly(true, false);
+                        assertThat(evaluator
+                                .check(new PermitEvaluatorTest.Order("o1", "s1")))
+                                .isTrue();
+                    } finally {
+                        RequestContextHolder.resetRequestAttributes();
+                    }
+                });
+    }
+
+    /**
+     * 按遍历顺序和最大深度执行
+     * @param test
+     */
+    private void each(EvaluatorTest test) {
+        for (String order : new String[] { "DEPTH_FIRST", "BREADTH_FIRST" }) {
+            for (int depth : new int[] { 0, 1, 2, 3, DEPTH }) {
+                this.runner.withPropertyValues(
+                        "data-permit.traversal.max-depth=" + depth,
+                        "data-permit.traversal.order=" + order).run(
+                        context -> test.run(context.getBean(PermitEvaluator.class),
+                                order, depth));
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface EvaluatorTest {
+        void run(PermitEvaluator evaluator, String order, int depth);
+    }
+
+    /**
+     * 已加载的上级资源在根校验之前
+     */
+    static class Note {
+        @Permit(clazz = PermitEvaluatorTest.StoreService.class, association = "store")
+        private String storeId;
+        private PermitEvaluatorTest.Store store;
+        @Permit(root = true)
+        private String tenantId;
+
+        Note(String storeId, PermitEvaluatorTest.Store store, String tenantId) {
+            this.storeId = storeId;
+            this.store = store;
+            this.tenantId = tenantId;
+        }
+    }
+
+    /**
+     * 只有请求范围属性的请求
+     */
+    static class MapRequestAttributes implements RequestAttributes {
+        private final Map<String, Object> attributes = new HashMap<>();
+
+        @Override
+        public Object getAttribute(String name, int scope) {
+            return this.attributes.get(name);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value, int scope) {
+            this.attributes.put(name, value);
+        }
+
+        @Override
+        public void removeAttribute(String name, int scope) {
+            this.attributes.remove(name);
+        }
+
+        @Override
+        public String[] getAttributeNames(int scope) {
+            return this.attributes.keySet().toArray(new String[0]);
+        }
+
+        @Override
+        public void registerDestructionCallback(String name, Runnable callback,
+                int scope) {
+        }
+
+        @Override
+        public Object resolveReference(String key) {
+            return null;
+        }
+
+        @Override
+        public String getSessionId() {
+            return "";
+        }
+
+        @Override
+        public Object getSessionMutex() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.EnableDataPermit;
+import com.wenyu7980.security.annotation.Permit;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 权限校验
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class PermitEvaluatorTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(Config.class);
+
+    /**
+     * 较长路径超过最大深度时，上级资源的不通过结果不记录，
+     * 较短路径到达同一上级资源时重新校验
+     */
+    @Test
+    void depthCutIsNotMemoized() {
+        this.runner.withPropertyValues("data-permit.traversal.max-depth=2")
+                .run(context -> {
+                    PermitEvaluator evaluator = context
+                            .getBean(PermitEvaluator.class);
+                    Item item = new Item("o1", "s1");
+                    assertThat(evaluator.check(item)).isTrue();
+                    assertThat(evaluator.checkAll(Arrays.asList(item)))
+                            .containsExactly(true);
+                });
+    }
+
+    /**
+     * 广度优先时同样不记录超过最大深度的上级资源
+     */
+    @Test
+    void depthCutIsNotMemoizedBreadthFirst() {
+        this.runner.withPropertyValues("data-permit.traversal.max-depth=2",
+                "data-permit.traversal.order=BREADTH_FIRST").run(context -> {
+            PermitEvaluator evaluator = context.getBean(PermitEvaluator.class);
+            assertThat(evaluator.check(new Item("o1", "s1"))).isTrue();
+        });
+    }
+
+    /**
+     * 超过最大深度的上级资源视为不通过
+     */
+    @Test
+    void depthCutDenies() {
+        this.runner.withPropertyValues("data-permit.traversal.max-depth=2")
+                .run(context -> {
+                    PermitEvaluator evaluator = context
+                            .getBean(PermitEvaluator.class);
+                    assertThat(evaluator.check(new Item("o1", null)))
+                            .isFalse();
+                    assertThat(evaluator.check(new Item(null, "s1")))
+                            .isTrue();
+                });
+    }
+
+    /**
+     * association的ID与查询ID一致时直接使用，不一致时按查询ID查询
+     */
+    @Test
+    void associationMustMatchId() {
+        this.runner.run(context -> {
+            PermitEvaluator evaluator = context.getBean(PermitEvaluator.class);
+            Line matched = new Line("s3", new Store("s3", "t1"));
+            Line stale = new Line("s2", new Store("s1", "t1"));
+            assertThat(evaluator.check(matched)).isTrue();
+            assertThat(evaluator.check(stale)).isFalse();
+            assertThat(evaluator.checkAll(Arrays.asList(matched, stale)))
+                    .containsExactly(true, false);
+            assertThat(evaluator.checkAll(Arrays.asList(stale, matched)))
+                    .containsExactly(false, true);
+        });
+    }
+
+    /**
+     * Integer属性值拓宽为Long类型的查询ID
+     */
+    @Test
+    void numericIdIsWidened() {
+        this.runner.run(context -> {
+            PermitEvaluator evaluator = context.getBean(PermitEvaluator.class);
+            Payment granted = new Payment(1);
+            Payment denied = new Payment(2);
+            assertThat(evaluator.check(granted)).isTrue();
+            assertThat(evaluator.check(denied)).isFalse();
+            assertThat(evaluator.checkAll(Arrays.asList(granted, denied)))
+                    .containsExactly(true, false);
+        });
+    }
+
+    @Configuration
+    @EnableDataPermit
+    static class Config {
+        @Bean
+        TenantService tenantService() {
+            return new TenantService();
+        }
+
+        @Bean
+        StoreService storeService() {
+            return new StoreService();
+        }
+
+        @Bean
+        OrderService orderService() {
+            return new OrderService();
+        }
+
+        @Bean
+        AccountService accountService() {
+            return new AccountService();
+        }
+
+        @Bean
+        PermitConfig permitConfig() {
+            return new TestPermitConfig("t1");
+        }
+    }
+
+    static class TestPermitConfig implements PermitConfig {
+        private final Set<Object> granted;
+
+        TestPermitConfig(Object... granted) {
+            this.granted = new HashSet<>(Arrays.asList(granted));
+        }
+
+        @Override
+        public boolean checkPermit(Object obj, Permit permit) {
+            return this.granted.contains(obj);
+        }
+
+        @Override
+        public RuntimeException exception(String message) {
+            return new IllegalStateException(message);
+        }
+    }
+
+    static class Tenant {
+        @Permit(root = true)
+        private String id;
+
+        Tenant(String id) {
+            this.id = id;
+        }
+    }
+
+    static class Store {
+        @Id
+        private String id;
+        @Permit(clazz = TenantService.class)
+        private String tenantId;
+
+        Store(String id, String tenantId) {
+            this.id = id;
+            this.tenantId = tenantId;
+        }
+    }
+
+    static class Order {
+        private String id;
+        @Permit(clazz = StoreService.class)
+        private String storeId;
+
+        Order(String id, String storeId) {
+            this.id = id;
+            this.storeId = storeId;
+        }
+    }
+
+    static class Item {
+        @Permit(clazz = OrderService.class)
+        private String orderId;
+        @Permit(clazz = StoreService.class)
+        private String storeId;
+
+        Item(String orderId, String storeId) {
+            this.orderId = orderId;
+            this.storeId = storeId;
+        }
+    }
+
+    static class Line {
+        @Permit(clazz = StoreService.class, association = "store")
+        private String storeId;
+        private Store store;
+
+        Line(String storeId, Store store) {
+            this.storeId = storeId;
+            this.store = store;
+        }
+    }
+
+    static class Account {
+        @Permit(clazz = TenantService.class)
+        private String tenantId;
+
+        Account(String tenantId) {
+            this.tenantId = tenantId;
+        }
+    }
+
+    static class Payment {
+        @Permit(clazz = AccountService.class)
+        private Integer accountId;
+
+        Payment(Integer accountId) {
+            this.accountId = accountId;
+        }
+    }
+
+    static class TenantService implements Permittable<Tenant, String> {
+        private final Map<String, Tenant> tenants = new HashMap<>();
+
+        TenantService() {
+            this.tenants.put("t1", new Tenant("t1"));
+            this.tenants.put("t2", new Tenant("t2"));
+        }
+
+        @Override
+        public Optional<Tenant> findPermitById(String id) {
+            return Optional.ofNullable(this.tenants.get(id));
+        }
+    }
+
+    static class StoreService implements Permittable<Store, String> {
+        private final Map<String, Store> stores = new HashMap<>();
+
+        StoreService() {
+            this.stores.put("s1", new Store("s1", "t1"));
+            this.stores.put("s2", new Store("s2", "t2"));
+        }
+
+        @Override
+        public Optional<Store> findPermitById(String id) {
+            return Optional.ofNullable(this.stores.get(id));
+        }
+    }
+
+    static class OrderService implements Permittable<Order, String> {
+        private final Map<String, Order> orders = new HashMap<>();
+
+        OrderService() {
+            this.orders.put("o1", new Order("o1", "s1"));
+            this.orders.put("o2", new Order("o2", "s2"));
+        }
+
+        @Override
+        public Optional<Order> findPermitById(String id) {
+            return Optional.ofNullable(this.orders.get(id));
+        }
+    }
+
+    static class AccountService implements Permittable<Account, Long> {
+        private final Map<Long, Account> accounts = new HashMap<>();
+
+        AccountService() {
+            this.accounts.put(1L, new Account("t1"));
+            this.accounts.put(2L, new Account("t2"));
+        }
+
+        @Override
+        public Optional<Account> findPermitById(Long id) {
+            return Optional.ofNullable(this.accounts.get(id));
+        }
+    }
+}
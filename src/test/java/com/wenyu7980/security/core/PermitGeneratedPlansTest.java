@@ -0,0 +1,164 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.wenyu7980.security.processor.PermitProcessor;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.lang.reflect.Field;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 编译期生成的权限计划与反射一致
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class PermitGeneratedPlansTest {
+    private static final String KEY = "package gen;\n"
+            + "public class ItemKey {\n"
+            + "    private final String order;\n"
+            + "    private final int no;\n"
+            + "    public ItemKey(String order, Integer no) {\n"
+            + "        this.order = order;\n"
+            + "        this.no = no;\n"
+            + "    }\n"
+            + "    public ItemKey(Long order, int no) {\n"
+            + "        this(\"L\" + order, no);\n"
+            + "    }\n"
+            + "    public boolean equals(Object o) {\n"
+            + "        return o instanceof ItemKey && ((ItemKey) o).order.equals(order) && ((ItemKey) o).no == no;\n"
+            + "    }\n"
+            + "    public int hashCode() {\n"
+            + "        return order.hashCode() * 31 + no;\n"
+            + "    }\n"
+            + "}\n";
+    private static final String SERVICE = "package gen;\n"
+            + "public interface ItemService extends com.wenyu7980.security.core.Permittable<Object, ItemKey> {\n"
+            + "}\n";
+    private static final String LINE = "package gen;\n"
+            + "@com.wenyu7980.security.annotation.Permits(permits = @com.wenyu7980.security.annotation.Permit(names = { \"orderId\", \"no\" }, clazz = ItemService.class))\n"
+            + "public class Line {\n"
+            + "    String orderId;\n"
+            + "    Integer no;\n"
+            + "    public Line(String orderId, Integer no) {\n"
+            + "        this.orderId = orderId;\n"
+            + "        this.no = no;\n"
+            + "    }\n"
+            + "}\n";
+    private static final String REFUND = "package gen;\n"
+            + "@com.wenyu7980.security.annotation.Permits(permits = @com.wenyu7980.security.annotation.Permit(names = { \"orderNo\", \"no\" }, clazz = ItemService.class))\n"
+            + "public class Refund {\n"
+            + "    private Long orderNo;\n"
+            + "    private int no;\n"
+            + "    public Refund(Long orderNo, int no) {\n"
+            + "        this.orderNo = orderNo;\n"
+            + "        this.no = no;\n"
+            + "    }\n"
+            + "    public Long getOrderNo() {\n"
+            + "        return orderNo;\n"
+            + "    }\n"
+            + "    public int getNo() {\n"
+            + "        return no;\n"
+            + "    }\n"
+            + "}\n";
+    @TempDir
+    static Path output;
+    private static ClassLoader loader;
+
+    @BeforeAll
+    static void compile() throws MalformedURLException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        JavaCompiler.CompilationTask task = compiler.getTask(null, null, null,
+                Arrays.asList("-d", output.toString(), "-classpath",
+                        System.getProperty("java.class.path")), null,
+                Arrays.asList(source("ItemKey", KEY),
+                        source("ItemService", SERVICE), source("Line", LINE),
+                        source("Refund", REFUND)));
+        task.setProcessors(Arrays.asList(new PermitProcessor()));
+        assertThat(task.call()).isTrue();
+        loader = new URLClassLoader(new URL[] { output.toUri().toURL() },
+                PermitGeneratedPlansTest.class.getClassLoader());
+    }
+
+    /**
+     * 同一参数个数的不同构造函数分别生成，按属性值类型选择
+     */
+    @Test
+    void idsMatchReflection() throws ClassNotFoundException {
+        PermitGeneratedPlans generated = PermitGeneratedPlans.load(loader);
+        Class<?> keyType = loader.loadClass("gen.ItemKey");
+        assertThat(generated
+                .id(keyType, new Class<?>[] { String.class, Integer.class }))
+                .isNotNull();
+        assertThat(generated
+                .id(keyType, new Class<?>[] { Long.class, int.class }))
+                .isNotNull();
+        Class<?> service = loader.loadClass("gen.ItemService");
+        PermittableBinding fast = new PermittableBinding(service, null,
+                generated, null);
+        PermittableBinding slow = new PermittableBinding(service, null,
+                PermitGeneratedPlans.EMPTY, null);
+        List<Object[]> values = Arrays.asList(new Object[] { "o1", 1 },
+                new Object[] { 2L, 3 });
+        for (Object[] value : values) {
+            assertThat(fast.id(value.clone()))
+                    .isEqualTo(slow.id(value.clone())).isNotNull();
+        }
+    }
+
+    /**
+     * 生成的属性读取器与反射读取结果一致
+     */
+    @Test
+    void accessorsMatchReflection() throws Exception {
+        PermitGeneratedPlans generated = PermitGeneratedPlans.load(loader);
+        Class<?> refund = loader.loadClass("gen.Refund");
+        Object obj = refund.getConstructor(Long.class, int.class)
+                .newInstance(7L, 8);
+        for (String name : new String[] { "orderNo", "no" }) {
+            Field field = refund.getDeclaredField(name);
+            field.setAccessible(true);
+            assertThat(generated.accessor(refund, name)).isNotNull();
+            assertThat(generated.accessor(refund, name).get(obj))
+                    .isEqualTo(field.get(obj));
+        }
+    }
+
+    private static JavaFileObject source(String name, String code) {
+        return new SimpleJavaFileObject(URI.create("string:///gen/" + name
+                + JavaFileObject.Kind.SOURCE.extension),
+                JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return code;
+            }
+        };
+    }
+}
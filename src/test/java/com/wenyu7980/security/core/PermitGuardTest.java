@@ -0,0 +1,172 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 上级资源查询保护
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class PermitGuardTest {
+    private PermitGuard guard;
+
+    @AfterEach
+    void destroy() {
+        if (this.guard != null) {
+            this.guard.destroy();
+        }
+    }
+
+    /**
+     * 查询开始前超时取消时，并发数由取消的一方释放
+     */
+    @Test
+    void cancelledLookupReleasesPermit() throws InterruptedException {
+        PermitProperties.Guard properties = new PermitProperties.Guard();
+        properties.setMaxConcurrent(4);
+        properties.setTimeout(Duration.ofNanos(1));
+        properties.setFailureThreshold(0);
+        properties.setFailure(PermitProperties.Guard.Failure.DENY);
+        this.guard = this.guard(properties);
+        for (int i = 0; i < 200; i++) {
+            this.guard.call(Service.class, () -> "found", null);
+        }
+        properties.setFailure(PermitProperties.Guard.Failure.EXCEPTION);
+        String reason = null;
+        for (int i = 0; i < 100 && !"Service查询超时".equals(reason); i++) {
+            TimeUnit.MILLISECONDS.sleep(20);
+            try {
+                this.guard.call(Service.class, () -> "found", null);
+            } catch (IllegalStateException e) {
+                reason = e.getMessage();
+            }
+        }
+        assertThat(reason).isEqualTo("Service查询超时");
+    }
+
+    /**
+     * 查询中的线程占用并发数，返回后释放
+     */
+    @Test
+    void runningLookupHoldsPermit() throws InterruptedException {
+        PermitProperties.Guard properties = new PermitProperties.Guard();
+        properties.setMaxConcurrent(1);
+        properties.setTimeout(Duration.ofMillis(10));
+        properties.setFailureThreshold(0);
+        this.guard = this.guard(properties);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        assertThatThrownBy(() -> this.guard.call(Service.class, () -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                // 取消时中断，等待测试放行
+                try {
+                    release.await();
+                } catch (InterruptedException ignored) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return "found";
+        }, null)).hasMessage("Service查询超时");
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(
+                () -> this.guard.call(Service.class, () -> "found", null))
+                .hasMessage("Service并发查询数已满");
+        release.countDown();
+        String result = null;
+        for (int i = 0; i < 100 && result == null; i++) {
+            TimeUnit.MILLISECONDS.sleep(20);
+            try {
+                result = this.guard.call(Service.class, () -> "found", null);
+            } catch (IllegalStateException e) {
+                assertThat(e).hasMessage("Service并发查询数已满");
+            }
+        }
+        assertThat(result).isEqualTo("found");
+    }
+
+    /**
+     * 没有超时设定时，查询异常也释放并发数
+     */
+    @Test
+    void failedLookupReleasesPermit() {
+        PermitProperties.Guard properties = new PermitProperties.Guard();
+        properties.setMaxConcurrent(1);
+        properties.setFailureThreshold(0);
+        this.guard = this.guard(properties);
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(() -> this.guard.call(Service.class, () -> {
+                throw new IllegalArgumentException("lookup");
+            }, null)).hasMessage("lookup");
+        }
+        assertThat(this.guard.call(Service.class, () -> "found", null))
+                .isEqualTo("found");
+    }
+
+    /**
+     * 连续失败后熔断
+     */
+    @Test
+    void opensAfterFailures() {
+        PermitProperties.Guard properties = new PermitProperties.Guard();
+        properties.setFailureThreshold(2);
+        properties.setOpenDuration(Duration.ofMinutes(1));
+        this.guard = this.guard(properties);
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> this.guard.call(Service.class, () -> {
+                throw new IllegalArgumentException("lookup");
+            }, null)).hasMessage("lookup");
+        }
+        assertThatThrownBy(
+                () -> this.guard.call(Service.class, () -> "found", null))
+                .hasMessage("Service熔断中");
+    }
+
+    /**
+     * 配置为空的次数限制不限制
+     */
+    @Test
+    void blankLimitsAreUnlimited() {
+        PermitProperties.Guard properties = new PermitProperties.Guard();
+        properties.setMaxConcurrent(null);
+        properties.setFailureThreshold(null);
+        PermitProperties.Limit limit = new PermitProperties.Limit();
+        properties.getTypes().put("Service", limit);
+        this.guard = this.guard(properties);
+        assertThat(this.guard.call(Service.class, () -> "found", null))
+                .isEqualTo("found");
+    }
+
+    private PermitGuard guard(PermitProperties.Guard properties) {
+        return new PermitGuard(properties,
+                new PermitEvaluatorTest.TestPermitConfig(), null);
+    }
+
+    interface Service extends Permittable<Object, String> {
+    }
+}
@@ -0,0 +1,141 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import com.wenyu7980.security.annotation.Permit;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 脱敏
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class PermitRedactTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(PermitEvaluatorTest.Config.class);
+
+    /**
+     * 有权限的属性保留，没有权限的复杂类型属性置为null，有权限的属性继续向下处理
+     */
+    @Test
+    void deniedFieldsAreNullified() {
+        this.runner.run(context -> {
+            PermitEvaluator evaluator = context.getBean(PermitEvaluator.class);
+            Detail detail = new Detail("s1");
+            detail.inner = new Detail("s2");
+            Report report = new Report("t1", detail, new Detail("s2"));
+            assertThat(evaluator.redact(report, null)).isTrue();
+            assertThat(report.detail).isSameAs(detail);
+            assertThat(report.tenant).isEqualTo("t1");
+            assertThat(detail.inner).isNull();
+            assertThat(report.extra).isNull();
+        });
+    }
+
+    /**
+     * 数据本身没有权限时不脱敏
+     */
+    @Test
+    void deniedDataIsUnchanged() {
+        this.runner.run(context -> {
+            PermitEvaluator evaluator = context.getBean(PermitEvaluator.class);
+            Detail extra = new Detail("s2");
+            Report report = new Report("t2", null, extra);
+            assertThat(evaluator.redact(report, null)).isFalse();
+            assertThat(report.extra).isSameAs(extra);
+        });
+    }
+
+    /**
+     * 复杂类型属性存在环时只处理一次
+     */
+    @Test
+    void cyclesTerminate() {
+        this.runner.run(context -> {
+            PermitEvaluator evaluator = context.getBean(PermitEvaluator.class);
+            Detail detail = new Detail("s1");
+            detail.inner = detail;
+            Report report = new Report("t1", detail, null);
+            assertThat(evaluator.redact(report, null)).isTrue();
+            assertThat(detail.inner).isSameAs(detail);
+        });
+    }
+
+    /**
+     * 批量脱敏只处理有权限的数据，null数据为true
+     */
+    @Test
+    void redactAll() {
+        this.runner.run(context -> {
+            PermitEvaluator evaluator = context.getBean(PermitEvaluator.class);
+            Report granted = new Report("t1", null, new Detail("s2"));
+            Detail extra = new Detail("s2");
+            Report denied = new Report("t2", null, extra);
+            assertThat(evaluator
+                    .redactAll(Arrays.asList(granted, denied, null), null))
+                    .containsExactly(true, false, true);
+            assertThat(granted.extra).isNull();
+            assertThat(denied.extra).isSameAs(extra);
+        });
+    }
+
+    /**
+     * PermitRedactor的返回值写回属性
+     */
+    @Test
+    void redactorIsUsed() {
+        Detail masked = new Detail(null);
+        this.runner.withBean(PermitRedactor.class,
+                () -> (owner, field, value) -> masked).run(context -> {
+            PermitEvaluator evaluator = context.getBean(PermitEvaluator.class);
+            Report report = new Report("t1", null, new Detail("s2"));
+            assertThat(evaluator.redact(report, null)).isTrue();
+            assertThat(report.extra).isSameAs(masked);
+        });
+    }
+
+    static class Report {
+        @Permit(root = true)
+        private String tenant;
+        @Permit
+        private Detail detail;
+        @Permit
+        private Detail extra;
+
+        Report(String tenant, Detail detail, Detail extra) {
+            this.tenant = tenant;
+            this.detail = detail;
+            this.extra = extra;
+        }
+    }
+
+    static class Detail {
+        @Permit(clazz = PermitEvaluatorTest.StoreService.class)
+        private String storeId;
+        @Permit
+        private Detail inner;
+
+        Detail(String storeId) {
+            this.storeId = storeId;
+        }
+    }
+}
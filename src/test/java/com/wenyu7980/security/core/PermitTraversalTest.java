@@ -0,0 +1,267 @@
+package com.wenyu7980.security.core;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import com.wenyu7980.security.annotation.Permit;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 上级资源遍历：环和遍历顺序
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class PermitTraversalTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(Config.class);
+
+    /**
+     * 上级资源和复杂类型属性存在环时结束，环上任意一个通过即通过
+     */
+    @Test
+    void cyclesTerminate() {
+        for (String order : new String[] { "DEPTH_FIRST", "BREADTH_FIRST" }) {
+            this.runner.withPropertyValues("data-permit.traversal.order=" + order)
+                    .run(context -> {
+                        PermitEvaluator evaluator = context
+                                .getBean(PermitEvaluator.class);
+                        assertThat(evaluator.check(folder("f1"))).isFalse();
+                        assertThat(evaluator.check(folder("f3"))).isTrue();
+                        assertThat(evaluator.check(folder("f5"))).isFalse();
+                        assertThat(evaluator.check(folder("f6"))).isTrue();
+                        assertThat(evaluator.check(ring("t2", "t2"))).isFalse();
+                        assertThat(evaluator.check(ring("t2", "t1"))).isTrue();
+                    });
+        }
+    }
+
+    /**
+     * 环上的上级资源在下层超过最大深度时不通过，结果不确定，不写入请求内共享
+     * y的父目录x正在校验中，x通过c到达租户时超过最大深度；
+     * 之后从较浅的位置校验y时，x可以通过c到达租户
+     */
+    @Test
+    void cycleDenialBehindCutIsNotMemoized() {
+        for (String order : new String[] { "DEPTH_FIRST", "BREADTH_FIRST" }) {
+            this.runner.withPropertyValues("data-permit.memo=REQUEST",
+                    "data-permit.traversal.max-depth=4",
+                    "data-permit.traversal.order=" + order).run(context -> {
+                PermitEvaluator evaluator = context.getBean(PermitEvaluator.class);
+                RequestContextHolder.setRequestAttributes(
+                        new PermitBatchResolverTest.MapRequestAttributes());
+                try {
+                    assertThat(evaluator.check(link("d", null))).as(order)
+                            .isFalse();
+                    assertThat(evaluator.check(link("y", null))).as(order)
+                            .isTrue();
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            });
+        }
+    }
+
+    /**
+     * 广度优先与深度优先的结果一致
+     */
+    @Test
+    void breadthFirstMatchesDepthFirst() {
+        for (int depth : new int[] { 0, 1, 2, 3, 32 }) {
+            List<Boolean> depthFirst = this.checks(depth, "DEPTH_FIRST");
+            List<Boolean> breadthFirst = this.checks(depth, "BREADTH_FIRST");
+            assertThat(breadthFirst).as("max-depth=%d", depth)
+                    .isEqualTo(depthFirst);
+        }
+    }
+
+    private List<Boolean> checks(int depth, String order) {
+        List<Boolean> results = new ArrayList<>();
+        this.runner.withPropertyValues("data-permit.traversal.max-depth=" + depth,
+                "data-permit.traversal.order=" + order).run(context -> {
+            PermitEvaluator evaluator = context.getBean(PermitEvaluator.class);
+            for (Object sample : samples()) {
+                results.add(evaluator.check(sample));
+            }
+        });
+        return results;
+    }
+
+    /**
+     * 覆盖根资源、上级资源链、环和已加载上级资源的数据
+     * @return
+     */
+    static List<Object> samples() {
+        return Arrays.asList(new PermitEvaluatorTest.Tenant("t1"),
+                new PermitEvaluatorTest.Tenant("t2"),
+                new PermitEvaluatorTest.Store("s1", "t1"),
+                new PermitEvaluatorTest.Store("s2", "t2"),
+                new PermitEvaluatorTest.Order("o1", "s1"),
+                new PermitEvaluatorTest.Order("o2", "s2"),
+                new PermitEvaluatorTest.Item("o1", "s1"),
+                new PermitEvaluatorTest.Item("o1", null),
+                new PermitEvaluatorTest.Item(null, "s1"),
+                new PermitEvaluatorTest.Item("o2", "s2"),
+                new PermitEvaluatorTest.Item("o2", "s1"),
+                new PermitEvaluatorTest.Line("s3",
+                        new PermitEvaluatorTest.Store("s3", "t1")),
+                new PermitEvaluatorTest.Line("s2",
+                        new PermitEvaluatorTest.Store("s1", "t1")),
+                folder("f1"), folder("f3"), folder("f5"), folder("f6"),
+                ring("t2", "t2"), ring("t2", "t1"), ring("t1", "t2"));
+    }
+
+    /**
+     * 以上级资源为父目录的数据
+     * @param parentId
+     * @return
+     */
+    static Folder folder(String parentId) {
+        return new Folder("x", parentId, null);
+    }
+
+    /**
+     * 以上级资源为父节点的数据
+     * @param parentId
+     * @param linkId
+     * @return
+     */
+    static Link link(String parentId, String linkId) {
+        return new Link(parentId, linkId, null);
+    }
+
+    /**
+     * 两个互相引用的数据
+     * @param first
+     * @param second
+     * @return
+     */
+    static Ring ring(String first, String second) {
+        Ring ring = new Ring(first);
+        ring.next = new Ring(second);
+        ring.next.next = ring;
+        return ring;
+    }
+
+    @Configuration
+    @Import(PermitEvaluatorTest.Config.class)
+    static class Config {
+        @Bean
+        FolderService folderService() {
+            return new FolderService();
+        }
+
+        @Bean
+        LinkService linkService() {
+            return new LinkService();
+        }
+    }
+
+    static class Folder {
+        private String id;
+        @Permit(clazz = FolderService.class)
+        private String parentId;
+        @Permit(clazz = PermitEvaluatorTest.TenantService.class)
+        private String tenantId;
+
+        Folder(String id, String parentId, String tenantId) {
+            this.id = id;
+            this.parentId = parentId;
+            this.tenantId = tenantId;
+        }
+    }
+
+    static class Link {
+        @Permit(clazz = LinkService.class)
+        private String parentId;
+        @Permit(clazz = LinkService.class)
+        private String linkId;
+        @Permit(clazz = PermitEvaluatorTest.TenantService.class)
+        private String tenantId;
+
+        Link(String parentId, String linkId, String tenantId) {
+            this.parentId = parentId;
+            this.linkId = linkId;
+            this.tenantId = tenantId;
+        }
+    }
+
+    static class Ring {
+        @Permit(root = true)
+        private String owner;
+        @Permit
+        private Ring next;
+
+        Ring(String owner) {
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * f1和f2互为父目录且都没有租户，f3和f4互为父目录且f4属于t1，
+     * f5属于t2且父目录是f1，f6的父目录是f3
+     */
+    static class FolderService implements Permittable<Folder, String> {
+        private final Map<String, Folder> folders = new HashMap<>();
+
+        FolderService() {
+            this.folders.put("f1", new Folder("f1", "f2", null));
+            this.folders.put("f2", new Folder("f2", "f1", null));
+            this.folders.put("f3", new Folder("f3", "f4", null));
+            this.folders.put("f4", new Folder("f4", "f3", "t1"));
+            this.folders.put("f5", new Folder("f5", "f1", "t2"));
+            this.folders.put("f6", new Folder("f6", "f3", null));
+        }
+
+        @Override
+        public Optional<Folder> findPermitById(String id) {
+            return Optional.ofNullable(this.folders.get(id));
+        }
+    }
+
+    /**
+     * d的父节点是e，e的父节点是x，x和y互为父节点，x关联c，c属于t1
+     */
+    static class LinkService implements Permittable<Link, String> {
+        private final Map<String, Link> links = new HashMap<>();
+
+        LinkService() {
+            this.links.put("d", new Link("e", null, null));
+            this.links.put("e", new Link("x", null, null));
+            this.links.put("x", new Link("y", "c", null));
+            this.links.put("y", new Link("x", null, null));
+            this.links.put("c", new Link(null, null, "t1"));
+        }
+
+        @Override
+        public Optional<Link> findPermitById(String id) {
+            return Optional.ofNullable(this.links.get(id));
+        }
+    }
+}
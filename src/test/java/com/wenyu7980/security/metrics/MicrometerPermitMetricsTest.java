@@ -0,0 +1,69 @@
+package com.wenyu7980.security.metrics;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Micrometer权限校验指标
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class MicrometerPermitMetricsTest {
+
+    /**
+     * 未统计的查询次数和深度不记录
+     */
+    @Test
+    void unknownIsNotRecorded() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MicrometerPermitMetrics metrics = new MicrometerPermitMetrics(registry,
+                null, 32);
+        metrics.check(null, String.class, true, 1L, 3, 2);
+        metrics.check(null, String.class, true, 1L, PermitMetrics.UNKNOWN,
+                PermitMetrics.UNKNOWN);
+        assertThat(registry.get("data.permit.check")
+                .tag("outcome", "granted").timer().count())
+                .isEqualTo(2);
+        assertThat(registry.get("data.permit.lookups").summary().count())
+                .isEqualTo(1);
+        assertThat(registry.get("data.permit.depth").summary().count())
+                .isEqualTo(1);
+    }
+
+    /**
+     * 深度按2的幂分桶到最大深度
+     */
+    @Test
+    void depthBuckets() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        new MicrometerPermitMetrics(registry, null, 20)
+                .check(null, String.class, true, 1L, 1, 3);
+        DistributionSummary depth = registry.get("data.permit.depth")
+                .summary();
+        assertThat(Arrays.stream(depth.takeSnapshot().histogramCounts())
+                .mapToDouble(CountAtBucket::bucket).toArray())
+                .containsExactly(1, 2, 4, 8, 16, 20);
+    }
+}
@@ -0,0 +1,133 @@
+package com.wenyu7980.security.predicate;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import com.wenyu7980.security.EnableDataPermit;
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.core.GrantablePermitConfig;
+import com.wenyu7980.security.core.PermitConfig;
+import com.wenyu7980.security.core.Permittable;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 查询前权限条件
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class PermitPredicateBuilderTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(Config.class);
+
+    /**
+     * 根校验的复杂类型属性同样展开其中的权限注解
+     */
+    @Test
+    void rootComplexFieldIsNested() {
+        this.runner.run(context -> {
+            PermitPredicateBuilder builder = context
+                    .getBean(PermitPredicateBuilder.class);
+            assertThat(builder.build(Shop.class).toString())
+                    .isEqualTo("(address in [a1] or address.(region in [r1]))");
+        });
+    }
+
+    /**
+     * 未设置predicate.max-depth时使用traversal.max-depth
+     */
+    @Test
+    void maxDepthDefaultsToTraversal() {
+        this.runner.run(context -> assertThat(
+                context.getBean(PermitPredicateBuilder.class).build(Branch.class)
+                        .toString()).isEqualTo("[regionId] -> Region(region in [r1])"));
+        this.runner.withPropertyValues("data-permit.traversal.max-depth=0")
+                .run(context -> assertThat(context
+                        .getBean(PermitPredicateBuilder.class)
+                        .build(Branch.class)).isSameAs(PermitPredicate.FALSE));
+        this.runner.withPropertyValues("data-permit.traversal.max-depth=0",
+                "data-permit.predicate.max-depth=1").run(context -> assertThat(
+                context.getBean(PermitPredicateBuilder.class).build(Branch.class))
+                .isNotSameAs(PermitPredicate.FALSE));
+    }
+
+    @Configuration
+    @EnableDataPermit
+    static class Config {
+        @Bean
+        RegionService regionService() {
+            return new RegionService();
+        }
+
+        @Bean
+        PermitConfig permitConfig() {
+            return new TestPermitConfig();
+        }
+    }
+
+    static class TestPermitConfig implements GrantablePermitConfig {
+        @Override
+        public Collection<?> grants(Permit permit) {
+            return Collections.singleton(
+                    "address".equals(permit.type()) ? "a1" : "r1");
+        }
+
+        @Override
+        public boolean checkPermit(Object obj, Permit permit) {
+            return false;
+        }
+
+        @Override
+        public RuntimeException exception(String message) {
+            return new IllegalStateException(message);
+        }
+    }
+
+    static class Region {
+        @Permit(root = true)
+        private String region;
+    }
+
+    static class Address {
+        @Permit(root = true)
+        private String region;
+    }
+
+    static class Shop {
+        @Permit(root = true, type = "address")
+        private Address address;
+    }
+
+    static class Branch {
+        @Permit(clazz = RegionService.class)
+        private String regionId;
+    }
+
+    static class RegionService implements Permittable<Region, String> {
+        @Override
+        public Optional<Region> findPermitById(String id) {
+            return Optional.empty();
+        }
+    }
+}
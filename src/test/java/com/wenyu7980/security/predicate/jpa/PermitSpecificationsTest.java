@@ -0,0 +1,355 @@
+package com.wenyu7980.security.predicate.jpa;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import com.wenyu7980.security.EnableDataPermit;
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.annotation.Permits;
+import com.wenyu7980.security.core.GrantablePermitConfig;
+import com.wenyu7980.security.core.PermitConfig;
+import com.wenyu7980.security.core.PermitEvaluator;
+import com.wenyu7980.security.jpa.JpaPermittable;
+import com.wenyu7980.security.predicate.PermitPredicateBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Id;
+import javax.persistence.IdClass;
+import javax.persistence.PersistenceUnitUtil;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 权限条件查询与逐个校验
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class PermitSpecificationsTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations
+                    .of(DataSourceAutoConfiguration.class,
+                            HibernateJpaAutoConfiguration.class))
+            .withUserConfiguration(Config.class)
+            .withPropertyValues("spring.datasource.generate-unique-name=true");
+
+    /**
+     * 条件查询的结果与逐个校验通过的数据一致
+     */
+    @Test
+    void specificationMatchesCheck() {
+        for (int depth : new int[] { 0, 1, 2, 3, 4, 32 }) {
+            this.runner.withPropertyValues(
+                    "data-permit.traversal.max-depth=" + depth).run(context -> {
+                EntityManager entityManager = context.getBean(EntityManager.class);
+                new TransactionTemplate(
+                        context.getBean(PlatformTransactionManager.class))
+                        .execute(status -> {
+                            save(entityManager);
+                            return null;
+                        });
+                PermitPredicateBuilder builder = context
+                        .getBean(PermitPredicateBuilder.class);
+                PermitEvaluator evaluator = context.getBean(PermitEvaluator.class);
+                PersistenceUnitUtil util = context
+                        .getBean(EntityManagerFactory.class)
+                        .getPersistenceUnitUtil();
+                for (Class<?> type : new Class<?>[] { Tenant.class, Store.class,
+                        Purchase.class, Folder.class, Item.class,
+                        Detail.class }) {
+                    SimpleJpaRepository<?, ?> repository = new SimpleJpaRepository<>(
+                            type, entityManager);
+                    Set<Object> expected = new HashSet<>();
+                    for (Object entity : repository.findAll()) {
+                        if (evaluator.check(entity)) {
+                            expected.add(util.getIdentifier(entity));
+                        }
+                    }
+                    Set<Object> found = new HashSet<>();
+                    for (Object entity : repository.findAll(
+                            PermitSpecifications.of(builder.build(type)))) {
+                        found.add(util.getIdentifier(entity));
+                    }
+                    assertThat(found).as("%s max-depth=%d",
+                            type.getSimpleName(), depth)
+                            .isEqualTo(expected);
+                }
+            });
+        }
+    }
+
+    /**
+     * t1和t3有权限；f1到f3为父目录链，f6的父目录是自身
+     * @param entityManager
+     */
+    private static void save(EntityManager entityManager) {
+        for (Object entity : Arrays.asList(new Tenant("t1"), new Tenant("t2"),
+                new Tenant("t3"), new Store("s1", "t1"), new Store("s2", "t2"),
+                new Store("s3", null), new Store("s4", "t3"),
+                new Purchase("p1", "s1"), new Purchase("p2", "s2"),
+                new Purchase("p3", "s3"), new Purchase("p4", null),
+                new Purchase("p5", "s4"), new Purchase("p6", "s9"),
+                new Folder("f1", null, "t1"), new Folder("f2", "f1", null),
+                new Folder("f3", "f2", null), new Folder("f4", null, "t2"),
+                new Folder("f5", "f4", null), new Folder("f6", "f6", null),
+                new Item("p1", 1), new Item("p2", 1), new Item("p1", 2),
+                new Detail("d1", "p1", 1), new Detail("d2", "p2", 1),
+                new Detail("d3", "p1", 2), new Detail("d4", "p1", 3),
+                new Detail("d5", null, 1))) {
+            entityManager.persist(entity);
+        }
+    }
+
+    @Configuration
+    @EnableDataPermit
+    @EntityScan(basePackageClasses = PermitSpecificationsTest.class)
+    static class Config {
+        @Bean
+        EntityManager entityManager(EntityManagerFactory entityManagerFactory) {
+            return SharedEntityManagerCreator
+                    .createSharedEntityManager(entityManagerFactory);
+        }
+
+        @Bean
+        TenantService tenantService(EntityManager entityManager) {
+            return new TenantService(entityManager);
+        }
+
+        @Bean
+        StoreService storeService(EntityManager entityManager) {
+            return new StoreService(entityManager);
+        }
+
+        @Bean
+        PurchaseService purchaseService(EntityManager entityManager) {
+            return new PurchaseService(entityManager);
+        }
+
+        @Bean
+        FolderService folderService(EntityManager entityManager) {
+            return new FolderService(entityManager);
+        }
+
+        @Bean
+        ItemService itemService(EntityManager entityManager) {
+            return new ItemService(entityManager);
+        }
+
+        @Bean
+        PermitConfig permitConfig() {
+            return new TestPermitConfig();
+        }
+    }
+
+    static class TestPermitConfig implements GrantablePermitConfig {
+        @Override
+        public Collection<?> grants(Permit permit) {
+            return Arrays.asList("t1", "t3");
+        }
+
+        @Override
+        public boolean checkPermit(Object obj, Permit permit) {
+            return this.grants(permit).contains(obj);
+        }
+
+        @Override
+        public RuntimeException exception(String message) {
+            return new IllegalStateException(message);
+        }
+    }
+
+    @Entity
+    static class Tenant {
+        @Id
+        @Permit(root = true)
+        private String id;
+
+        Tenant() {
+        }
+
+        Tenant(String id) {
+            this.id = id;
+        }
+    }
+
+    @Entity
+    static class Store {
+        @Id
+        private String id;
+        @Permit(clazz = TenantService.class)
+        private String tenantId;
+
+        Store() {
+        }
+
+        Store(String id, String tenantId) {
+            this.id = id;
+            this.tenantId = tenantId;
+        }
+    }
+
+    @Entity
+    static class Purchase {
+        @Id
+        private String id;
+        @Permit(clazz = StoreService.class)
+        private String storeId;
+
+        Purchase() {
+        }
+
+        Purchase(String id, String storeId) {
+            this.id = id;
+            this.storeId = storeId;
+        }
+    }
+
+    @Entity
+    static class Folder {
+        @Id
+        private String id;
+        @Permit(clazz = FolderService.class)
+        private String parentId;
+        @Permit(root = true)
+        private String tenantId;
+
+        Folder() {
+        }
+
+        Folder(String id, String parentId, String tenantId) {
+            this.id = id;
+            this.parentId = parentId;
+            this.tenantId = tenantId;
+        }
+    }
+
+    public static class ItemKey implements Serializable {
+        private static final long serialVersionUID = 1L;
+        private String purchaseId;
+        private Integer no;
+
+        public ItemKey() {
+        }
+
+        public ItemKey(String purchaseId, Integer no) {
+            this.purchaseId = purchaseId;
+            this.no = no;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof ItemKey)) {
+                return false;
+            }
+            ItemKey key = (ItemKey) o;
+            return Objects.equals(this.purchaseId, key.purchaseId) && Objects
+                    .equals(this.no, key.no);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(this.purchaseId, this.no);
+        }
+    }
+
+    @Entity
+    @IdClass(ItemKey.class)
+    @Permits(permits = @Permit(names = "purchaseId", clazz = PurchaseService.class))
+    static class Item {
+        @Id
+        private String purchaseId;
+        @Id
+        private Integer no;
+
+        Item() {
+        }
+
+        Item(String purchaseId, Integer no) {
+            this.purchaseId = purchaseId;
+            this.no = no;
+        }
+    }
+
+    @Entity
+    @Permits(permits = @Permit(names = { "purchaseId", "no" }, clazz = ItemService.class))
+    static class Detail {
+        @Id
+        private String id;
+        private String purchaseId;
+        private Integer no;
+
+        Detail() {
+        }
+
+        Detail(String id, String purchaseId, Integer no) {
+            this.id = id;
+            this.purchaseId = purchaseId;
+            this.no = no;
+        }
+    }
+
+    static class TenantService extends JpaPermittable<Tenant, String> {
+        TenantService(EntityManager entityManager) {
+            super(entityManager, Tenant.class);
+        }
+    }
+
+    static class StoreService extends JpaPermittable<Store, String> {
+        StoreService(EntityManager entityManager) {
+            super(entityManager, Store.class);
+        }
+    }
+
+    static class PurchaseService extends JpaPermittable<Purchase, String> {
+        PurchaseService(EntityManager entityManager) {
+            super(entityManager, Purchase.class);
+        }
+    }
+
+    static class FolderService extends JpaPermittable<Folder, String> {
+        FolderService(EntityManager entityManager) {
+            super(entityManager, Folder.class);
+        }
+    }
+
+    static class ItemService extends JpaPermittable<Item, ItemKey> {
+        ItemService(EntityManager entityManager) {
+            super(entityManager, Item.class);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.wenyu7980.security.reactive;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import com.wenyu7980.security.EnableDataPermit;
+import com.wenyu7980.security.annotation.Permit;
+import com.wenyu7980.security.annotation.PermitMethod;
+import com.wenyu7980.security.core.PermitConfig;
+import com.wenyu7980.security.core.Permittable;
+import com.wenyu7980.security.core.RootSetPermitConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.annotation.Id;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 响应式权限校验
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class ReactivePermitEvaluatorTest {
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withUserConfiguration(Config.class);
+
+    /**
+     * 上级资源超过traversal.max-depth时视为不通过，较短路径到达时重新校验
+     */
+    @Test
+    void depthCut() {
+        this.runner.withPropertyValues("data-permit.traversal.max-depth=2")
+                .run(context -> {
+                    ReactivePermitEvaluator evaluator = context
+                            .getBean(ReactivePermitEvaluator.class);
+                    assertThat(evaluator.check(new Item("o1", null)).block())
+                            .isFalse();
+                    assertThat(evaluator.check(new Item("o1", "s1")).block())
+                            .isTrue();
+                    assertThat(evaluator.check(new Item(null, "s1")).block())
+                            .isTrue();
+                });
+    }
+
+    /**
+     * association的ID与查询ID不一致时按查询ID查询
+     */
+    @Test
+    void associationMustMatchId() {
+        this.runner.run(context -> {
+            ReactivePermitEvaluator evaluator = context
+                    .getBean(ReactivePermitEvaluator.class);
+            assertThat(evaluator
+                    .check(new Line("s3", new Store("s3", "t1"))).block())
+                    .isTrue();
+            assertThat(evaluator
+                    .check(new Line("s2", new Store("s1", "t1"))).block())
+                    .isFalse();
+        });
+    }
+
+    /**
+     * ReactivePermitConfig的根校验同样使用根资源集合
+     */
+    @Test
+    void reactiveRootUsesRootSets() {
+        this.runner.withPropertyValues("data-permit.root-set.enabled=true")
+                .run(context -> {
+                    ReactivePermitEvaluator evaluator = context
+                            .getBean(ReactivePermitEvaluator.class);
+                    TestPermitConfig config = context
+                            .getBean(TestPermitConfig.class);
+                    assertThat(evaluator.check(new Store("s1", "t1")).block())
+                            .isTrue();
+                    assertThat(evaluator.check(new Store("s2", "t2")).block())
+                            .isFalse();
+                    assertThat(config.checks.get()).isZero();
+                });
+    }
+
+    /**
+     * 方法执行前校验推迟到订阅时，不在订阅线程上查询上级资源
+     */
+    @Test
+    void beforeIsDeferred() {
+        this.runner.run(context -> {
+            Stores stores = context.getBean(Stores.class);
+            StoreService service = context.getBean(StoreService.class);
+            Mono<String> granted = stores.get("s1");
+            Mono<String> denied = stores.get("s2");
+            assertThat(stores.calls()).isZero();
+            assertThat(service.finds.get()).isZero();
+            assertThat(granted.block()).isEqualTo("s1");
+            assertThat(service.thread).startsWith("boundedElastic");
+            assertThatThrownBy(denied::block)
+                    .isInstanceOf(IllegalStateException.class);
+            assertThat(stores.calls()).isEqualTo(1);
+        });
+    }
+
+    @Configuration
+    @EnableDataPermit
+    static class Config {
+        @Bean
+        TenantService tenantService() {
+            return new TenantService();
+        }
+
+        @Bean
+        StoreService storeService() {
+            return new StoreService();
+        }
+
+        @Bean
+        OrderService orderService() {
+            return new OrderService();
+        }
+
+        @Bean
+        Stores stores() {
+            return new Stores();
+        }
+
+        @Bean
+        TestPermitConfig permitConfig() {
+            return new TestPermitConfig();
+        }
+    }
+
+    static class TestPermitConfig
+            implements ReactivePermitConfig, RootSetPermitConfig {
+        private final AtomicInteger checks = new AtomicInteger();
+
+        @Override
+        public Mono<Boolean> checkReactivePermit(Object obj, Permit permit) {
+            this.checks.incrementAndGet();
+            return Mono.just("t1".equals(obj));
+        }
+
+        @Override
+        public Object principal() {
+            return "u1";
+        }
+
+        @Override
+        public Map<String, ? extends Collection<?>> roots(Object principal) {
+            return Collections.singletonMap("", Collections.singleton("t1"));
+        }
+
+        @Override
+        public RuntimeException exception(String message) {
+            return new IllegalStateException(message);
+        }
+    }
+
+    static class Stores {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        public int calls() {
+            return this.calls.get();
+        }
+
+        @PermitMethod(before = StoreService.class)
+        public Mono<String> get(String id) {
+            this.calls.incrementAndGet();
+            return Mono.just(id);
+        }
+    }
+
+    static class Tenant {
+        @Permit(root = true)
+        private String id;
+
+        Tenant(String id) {
+            this.id = id;
+        }
+    }
+
+    static class Store {
+        @Id
+        private String id;
+        @Permit(clazz = TenantService.class)
+        private String tenantId;
+
+        Store(String id, String tenantId) {
+            this.id = id;
+            this.tenantId = tenantId;
+        }
+    }
+
+    static class Order {
+        private String id;
+        @Permit(clazz = StoreService.class)
+        private String storeId;
+
+        Order(String id, String storeId) {
+            this.id = id;
+            this.storeId = storeId;
+        }
+    }
+
+    static class Item {
+        @Permit(clazz = OrderService.class)
+        private String orderId;
+        @Permit(clazz = StoreService.class)
+        private String storeId;
+
+        Item(String orderId, String storeId) {
+            this.orderId = orderId;
+            this.storeId = storeId;
+        }
+    }
+
+    static class Line {
+        @Permit(clazz = StoreService.class, association = "store")
+        private String storeId;
+        private Store store;
+
+        Line(String storeId, Store store) {
+            this.storeId = storeId;
+            this.store = store;
+        }
+    }
+
+    static class TenantService implements Permittable<Tenant, String> {
+        @Override
+        public Optional<Tenant> findPermitById(String id) {
+            return Optional.of(new Tenant(id));
+        }
+    }
+
+    static class StoreService implements Permittable<Store, String> {
+        private final Map<String, Store> stores = new HashMap<>();
+        private final AtomicInteger finds = new AtomicInteger();
+        private volatile String thread;
+
+        StoreService() {
+            this.stores.put("s1", new Store("s1", "t1"));
+            this.stores.put("s2", new Store("s2", "t2"));
+        }
+
+        @Override
+        public Optional<Store> findPermitById(String id) {
+            this.finds.incrementAndGet();
+            this.thread = Thread.currentThread().getName();
+            return Optional.ofNullable(this.stores.get(id));
+        }
+    }
+
+    static class OrderService implements Permittable<Order, String> {
+        private final Map<String, Order> orders = new HashMap<>();
+
+        OrderService() {
+            this.orders.put("o1", new Order("o1", "s1"));
+            this.orders.put("o2", new Order("o2", "s2"));
+        }
+
+        @Override
+        public Optional<Order> findPermitById(String id) {
+            return Optional.ofNullable(this.orders.get(id));
+        }
+    }
+}
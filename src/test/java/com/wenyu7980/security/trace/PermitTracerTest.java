@@ -0,0 +1,53 @@
+package com.wenyu7980.security.trace;
+/**
+ * Copyright wenyu
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 权限校验过程采样
+ * @author:wenyu
+ * @date:2026/10/18
+ */
+class PermitTracerTest {
+
+    /**
+     * 保留最慢的通过过程，不通过的过程另外保存
+     */
+    @Test
+    void keepsSlowestAndDenials() {
+        PermitTracer tracer = new PermitTracer(1.0D, Duration.ofNanos(10), 3);
+        long[] durations = { 50, 5, 10, 70, 20, 60, 30 };
+        for (long nanos : durations) {
+            tracer.finish(tracer.start(null, String.class), true, nanos);
+        }
+        for (long nanos = 1; nanos <= 5; nanos++) {
+            tracer.finish(tracer.start(null, String.class), false, nanos);
+        }
+        List<PermitTrace> traces = tracer.traces();
+        assertThat(traces).extracting(PermitTrace::getNanos)
+                .containsExactly(70L, 60L, 50L, 5L, 4L, 3L);
+        assertThat(tracer.denials()).extracting(PermitTrace::getNanos)
+                .containsExactly(5L, 4L, 3L);
+        tracer.clear();
+        assertThat(tracer.traces()).isEmpty();
+    }
+}